@@ -0,0 +1,23 @@
+package it.podlodowski.javatry.benchmark;
+
+import java.util.concurrent.Callable;
+
+class FlakyCallable implements Callable<Integer> {
+
+    private static final Exception FAILURE = new Exception("Benchmark failure", null, false, false) {};
+
+    private final int failuresBeforeSuccess;
+    private int calls;
+
+    FlakyCallable(int failuresBeforeSuccess) {
+        this.failuresBeforeSuccess = failuresBeforeSuccess;
+    }
+
+    @Override
+    public Integer call() throws Exception {
+        if (calls++ % (failuresBeforeSuccess + 1) != failuresBeforeSuccess) {
+            throw FAILURE;
+        }
+        return calls;
+    }
+}
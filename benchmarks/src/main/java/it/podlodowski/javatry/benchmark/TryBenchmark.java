@@ -0,0 +1,71 @@
+package it.podlodowski.javatry.benchmark;
+
+import it.podlodowski.javatry.Try;
+import it.podlodowski.javatry.util.retry.RetryPolicy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TryBenchmark {
+
+    @Param({"1", "3"})
+    private int failuresBeforeSuccess;
+
+    private Callable<Integer> succeeding;
+    private Callable<Integer> flaky;
+    private RetryPolicy policy;
+
+    @Setup
+    public void setUp() {
+        succeeding = () -> 42;
+        flaky = new FlakyCallable(failuresBeforeSuccess);
+        policy = RetryPolicy.builder().times(failuresBeforeSuccess + 1).build();
+    }
+
+    @Benchmark
+    public Integer bareTryCatch() {
+        try {
+            return succeeding.call();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    public Optional<Integer> tryNowFirstAttempt() {
+        return Try.it(succeeding).times(failuresBeforeSuccess + 1).now();
+    }
+
+    @Benchmark
+    public Integer policyCallFirstAttempt() {
+        return policy.call(succeeding);
+    }
+
+    @Benchmark
+    public Optional<Integer> tryNowAfterFailures() {
+        return Try.it(flaky).times(failuresBeforeSuccess + 1).now();
+    }
+
+    @Benchmark
+    public Integer policyCallAfterFailures() {
+        return policy.call(flaky);
+    }
+}
@@ -0,0 +1,55 @@
+package it.podlodowski.javatry.benchmark;
+
+import it.podlodowski.javatry.Try;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TryFutureBenchmark {
+
+    @State(Scope.Thread)
+    public static class Callables {
+
+        private FlakyCallable flaky;
+
+        @Setup
+        public void setUp() {
+            flaky = new FlakyCallable(2);
+        }
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Integer futureUnderContention() {
+        return Try.it(() -> 42).future().join();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Integer futureAfterFailuresUnderContention(Callables callables) {
+        return Try.it(callables.flaky).times(3).future().join();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Integer endlessFutureWithDelay(Callables callables) {
+        return Try.it(callables.flaky).endless().withDelay(Duration.ofNanos(1000)).future().join();
+    }
+}
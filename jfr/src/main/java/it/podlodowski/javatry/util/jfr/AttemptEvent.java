@@ -0,0 +1,29 @@
+package it.podlodowski.javatry.util.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("it.podlodowski.javatry.Attempt")
+@Label("Retry Attempt")
+@Category({"javatry", "Retry"})
+@Description("A single attempt of a retried callable")
+@StackTrace(false)
+class AttemptEvent extends jdk.jfr.Event {
+
+    @Label("Name")
+    String name;
+
+    @Label("Attempt")
+    int attempt;
+
+    @Label("Elapsed")
+    @Timespan(Timespan.NANOSECONDS)
+    long elapsed;
+
+    @Label("Exception Class")
+    Class<?> exceptionClass;
+}
@@ -0,0 +1,26 @@
+package it.podlodowski.javatry.util.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("it.podlodowski.javatry.Delay")
+@Label("Retry Delay")
+@Category({"javatry", "Retry"})
+@Description("A backoff wait scheduled before the next attempt")
+@StackTrace(false)
+class DelayEvent extends jdk.jfr.Event {
+
+    @Label("Name")
+    String name;
+
+    @Label("Attempt")
+    int attempt;
+
+    @Label("Delay")
+    @Timespan(Timespan.NANOSECONDS)
+    long delay;
+}
@@ -0,0 +1,23 @@
+package it.podlodowski.javatry.util.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+@Name("it.podlodowski.javatry.GiveUp")
+@Label("Retry Give Up")
+@Category({"javatry", "Retry"})
+@Description("Retrying stopped and the last failure was surfaced")
+class GiveUpEvent extends jdk.jfr.Event {
+
+    @Label("Name")
+    String name;
+
+    @Label("Attempts")
+    int attempts;
+
+    @Label("Exception Class")
+    Class<?> exceptionClass;
+}
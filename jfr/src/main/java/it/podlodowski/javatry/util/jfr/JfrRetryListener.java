@@ -0,0 +1,49 @@
+package it.podlodowski.javatry.util.jfr;
+
+import it.podlodowski.javatry.util.metrics.RetryListener;
+
+public class JfrRetryListener implements RetryListener {
+
+    private static final JfrRetryListener INSTANCE = new JfrRetryListener();
+
+    private JfrRetryListener() {
+    }
+
+    public static JfrRetryListener instance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public void onAttemptEnd(String name, int attempt, long elapsedNanos, Throwable throwable) {
+        AttemptEvent event = new AttemptEvent();
+        if (event.isEnabled()) {
+            event.name = name;
+            event.attempt = attempt;
+            event.elapsed = elapsedNanos;
+            event.exceptionClass = throwable != null ? throwable.getClass() : null;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void onDelay(String name, int retry, long delayNanos) {
+        DelayEvent event = new DelayEvent();
+        if (event.isEnabled()) {
+            event.name = name;
+            event.attempt = retry;
+            event.delay = delayNanos;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void onGiveUp(String name, int attempts, Throwable throwable) {
+        GiveUpEvent event = new GiveUpEvent();
+        if (event.isEnabled()) {
+            event.name = name;
+            event.attempts = attempts;
+            event.exceptionClass = throwable != null ? throwable.getClass() : null;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package it.podlodowski.javatry.util.jfr;
+
+import it.podlodowski.javatry.Try;
+import it.podlodowski.javatry.util.metrics.RetryMetrics;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JfrRetryListenerTest {
+
+    @Test
+    public void should_record_attempts_delays_and_give_up() throws Exception {
+        // given
+        Path file = Files.createTempFile("javatry", ".jfr");
+        List<RecordedEvent> events;
+
+        // when
+        try (Recording recording = new Recording()) {
+            recording.enable(AttemptEvent.class);
+            recording.enable(DelayEvent.class);
+            recording.enable(GiveUpEvent.class);
+            recording.start();
+            Try.it(() -> {
+                throw new IllegalStateException();
+            }).times(3).withDelay(Duration.ofMillis(1)).named("magic")
+                    .withListener(JfrRetryListener.instance()).now();
+            recording.stop();
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        // then
+        List<RecordedEvent> attempts = eventsOf(events, "it.podlodowski.javatry.Attempt");
+        assertThat(attempts).extracting(event -> event.getString("name")).containsExactly("magic", "magic", "magic");
+        assertThat(attempts).extracting(event -> event.getClass("exceptionClass").getName())
+                .containsOnly(IllegalStateException.class.getName());
+        assertThat(eventsOf(events, "it.podlodowski.javatry.Delay")).hasSize(2);
+        assertThat(eventsOf(events, "it.podlodowski.javatry.GiveUp")).extracting(event -> event.getInt("attempts"))
+                .containsExactly(3);
+    }
+
+    @Test
+    public void should_not_fail_when_recording_is_disabled() {
+        // when
+        String result = Try.it(() -> "magic").withListener(JfrRetryListener.instance()).now().orElse(null);
+
+        // then
+        assertThat(result).isEqualTo("magic");
+    }
+
+    @Test
+    public void should_combine_with_other_listeners() {
+        // given
+        RetryMetrics metrics = new RetryMetrics();
+
+        // when
+        Try.it(() -> "magic").named("magic").withListener(JfrRetryListener.instance().andThen(metrics)).now();
+
+        // then
+        assertThat(metrics.stats("magic").attempts()).isEqualTo(1);
+    }
+
+    private static List<RecordedEvent> eventsOf(List<RecordedEvent> events, String type) {
+        return events.stream().filter(event -> event.getEventType().getName().equals(type))
+                .collect(Collectors.toList());
+    }
+}
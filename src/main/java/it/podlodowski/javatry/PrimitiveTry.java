@@ -0,0 +1,88 @@
+package it.podlodowski.javatry;
+
+import it.podlodowski.javatry.util.backoff.BackoffStrategy;
+import it.podlodowski.javatry.util.circuitbreaker.CircuitBreaker;
+import it.podlodowski.javatry.util.metrics.RetryListener;
+import it.podlodowski.javatry.util.retry.RetryPolicy;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+abstract class PrimitiveTry<C, S extends PrimitiveTry<C, S>> {
+
+    final C callable;
+
+    private final RetryPolicy.Builder policy;
+
+    PrimitiveTry(C callable, RetryPolicy.Builder policy) {
+        this.callable = callable;
+        this.policy = policy;
+    }
+
+    public S times(int maxTries) {
+        policy.times(maxTries);
+        return self();
+    }
+
+    public S withDelay(Duration delay) {
+        policy.withDelay(delay);
+        return self();
+    }
+
+    public S withBackoff(BackoffStrategy backoff) {
+        policy.withBackoff(backoff);
+        return self();
+    }
+
+    public S onRetry(Runnable onRetry) {
+        policy.onRetry(onRetry);
+        return self();
+    }
+
+    public S onException(Consumer<Exception> exceptionConsumer) {
+        policy.onException(exceptionConsumer);
+        return self();
+    }
+
+    public S withCircuitBreaker(CircuitBreaker circuitBreaker) {
+        policy.withCircuitBreaker(circuitBreaker);
+        return self();
+    }
+
+    @SafeVarargs
+    public final S retryOn(Class<? extends Exception>... exceptionTypes) {
+        policy.retryOn(exceptionTypes);
+        return self();
+    }
+
+    @SafeVarargs
+    public final S abortOn(Class<? extends Exception>... exceptionTypes) {
+        policy.abortOn(exceptionTypes);
+        return self();
+    }
+
+    public S retryIf(Predicate<Exception> retryIf) {
+        policy.retryIf(retryIf);
+        return self();
+    }
+
+    public S named(String name) {
+        policy.named(name);
+        return self();
+    }
+
+    public S withListener(RetryListener listener) {
+        policy.withListener(listener);
+        return self();
+    }
+
+    RetryPolicy policy() {
+        return policy.build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private S self() {
+        return (S) this;
+    }
+}
@@ -1,118 +1,681 @@
 package it.podlodowski.javatry;
 
-import it.podlodowski.javatry.util.consumer.Consumers;
-import it.podlodowski.javatry.util.retry.Retry;
+import it.podlodowski.javatry.util.adaptive.AdaptiveAttempts;
+import it.podlodowski.javatry.util.backoff.BackoffStrategy;
+import it.podlodowski.javatry.util.balancer.LoadBalancer;
+import it.podlodowski.javatry.util.budget.RetryBudget;
+import it.podlodowski.javatry.util.bulkhead.Bulkhead;
+import it.podlodowski.javatry.util.cache.FallbackCache;
+import it.podlodowski.javatry.util.circuitbreaker.CircuitBreaker;
+import it.podlodowski.javatry.util.metrics.LatencyHistogram;
+import it.podlodowski.javatry.util.metrics.RetryListener;
+import it.podlodowski.javatry.util.outcome.Outcome;
+import it.podlodowski.javatry.util.precondition.Preconditions;
+import it.podlodowski.javatry.util.ratelimiter.RateLimiter;
+import it.podlodowski.javatry.util.retry.BatchResult;
+import it.podlodowski.javatry.util.retry.ResumableIterator;
+import it.podlodowski.javatry.util.retry.ResumableSource;
+import it.podlodowski.javatry.util.retry.RetryPolicy;
+import it.podlodowski.javatry.util.scheduler.DelayScheduler;
 
 import java.time.Duration;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 public class Try<T> {
 
     private final Callable<T> callable;
 
-    private int maxTries = 1;
-    private Consumer<Exception> exceptionConsumer = Consumers.doNothing();
-    private Runnable onRetry;
-    private Duration delay = null;
+    private final RetryPolicy.Builder policy;
 
-    private Try(Callable<T> callable) {
+    private FallbackCache<Object, T> fallbackCache;
+
+    private Object fallbackKey;
+
+    private Duration maxStaleness;
+
+    private Duration refreshAfter;
+
+    private Try(Callable<T> callable, RetryPolicy.Builder policy) {
         this.callable = callable;
+        this.policy = policy;
     }
 
     public static <T> Try<T> it(Callable<T> callable) {
-        return new Try<>(callable);
+        return new Try<>(callable, RetryPolicy.builder());
+    }
+
+    public static <T> Try<T> it(Callable<T> callable, RetryPolicy policy) {
+        return new Try<>(callable, policy.toBuilder());
+    }
+
+    public static <T> Try<T> any(LoadBalancer<T> loadBalancer) {
+        return it(loadBalancer).times(loadBalancer.getEndpointCount());
+    }
+
+    public static <T> Try<T> outcome(Callable<Outcome<T>> callable) {
+        return it(Outcome.unwrapping(callable));
+    }
+
+    public static <T> AsyncTry<T> async(Supplier<? extends CompletionStage<T>> supplier) {
+        return new AsyncTry<>(supplier, RetryPolicy.builder());
+    }
+
+    public static <T> AsyncTry<T> async(Supplier<? extends CompletionStage<T>> supplier, RetryPolicy policy) {
+        return new AsyncTry<>(supplier, policy.toBuilder());
+    }
+
+    public static <T> BatchTry<T> all(Collection<? extends Callable<T>> callables) {
+        return new BatchTry<>(callables, RetryPolicy.builder());
+    }
+
+    public static <T> BatchTry<T> all(Collection<? extends Callable<T>> callables, RetryPolicy policy) {
+        return new BatchTry<>(callables, policy.toBuilder());
+    }
+
+    public static <T> ResumableTry<T> resumable(ResumableSource<T> source) {
+        return new ResumableTry<>(source, RetryPolicy.builder());
+    }
+
+    public static <T> ResumableTry<T> resumable(ResumableSource<T> source, RetryPolicy policy) {
+        return new ResumableTry<>(source, policy.toBuilder());
     }
 
 
     public EndlessTry<T> endless() {
-        return new EndlessTry<>(callable, exceptionConsumer, onRetry, delay);
+        return new EndlessTry<>(callable, policy.endless());
     }
 
     public Try<T> times(int maxTries) {
-        if (maxTries >= 0) {
-            this.maxTries = maxTries;
-        } else {
-            throw new IllegalArgumentException("times must not be negative number");
-        }
+        policy.times(maxTries);
         return this;
     }
 
     public Try<T> withDelay(Duration delay) {
-        this.delay = delay;
+        policy.withDelay(delay);
+        return this;
+    }
+
+    public Try<T> withBackoff(BackoffStrategy backoff) {
+        policy.withBackoff(backoff);
         return this;
     }
 
     public Try<T> onRetry(Runnable onRetry) {
-        this.onRetry = onRetry;
+        policy.onRetry(onRetry);
         return this;
     }
 
     public Try<T> onException(Consumer<Exception> exceptionConsumer) {
-        this.exceptionConsumer = exceptionConsumer;
+        policy.onException(exceptionConsumer);
+        return this;
+    }
+
+    public Try<T> withCircuitBreaker(CircuitBreaker circuitBreaker) {
+        policy.withCircuitBreaker(circuitBreaker);
+        return this;
+    }
+
+    public Try<T> withRetryBudget(RetryBudget retryBudget) {
+        policy.withRetryBudget(retryBudget);
+        return this;
+    }
+
+    public Try<T> withBulkhead(Bulkhead bulkhead) {
+        policy.withBulkhead(bulkhead);
+        return this;
+    }
+
+    public Try<T> withRateLimiter(RateLimiter rateLimiter) {
+        policy.withRateLimiter(rateLimiter);
+        return this;
+    }
+
+    public Try<T> withAdaptiveAttempts(AdaptiveAttempts adaptiveAttempts) {
+        policy.withAdaptiveAttempts(adaptiveAttempts);
+        return this;
+    }
+
+    public Try<T> stackless() {
+        policy.stackless();
+        return this;
+    }
+
+    @SafeVarargs
+    public final Try<T> retryOn(Class<? extends Exception>... exceptionTypes) {
+        policy.retryOn(exceptionTypes);
+        return this;
+    }
+
+    @SafeVarargs
+    public final Try<T> abortOn(Class<? extends Exception>... exceptionTypes) {
+        policy.abortOn(exceptionTypes);
+        return this;
+    }
+
+    public Try<T> retryIf(Predicate<Exception> retryIf) {
+        policy.retryIf(retryIf);
+        return this;
+    }
+
+    public Try<T> retryIfResult(Predicate<? super T> retryIfResult) {
+        policy.retryIfResult(retryIfResult);
         return this;
     }
 
+    public Try<T> attemptTimeout(Duration attemptTimeout) {
+        policy.attemptTimeout(attemptTimeout);
+        return this;
+    }
+
+    public Try<T> deadline(Duration deadline) {
+        policy.deadline(deadline);
+        return this;
+    }
+
+    public Try<T> hedgeAfter(Duration delay, int maxHedges) {
+        policy.hedgeAfter(delay, maxHedges);
+        return this;
+    }
+
+    public Try<T> hedgeAfter(LatencyHistogram attemptLatency, double percentile, int maxHedges) {
+        policy.hedgeAfter(attemptLatency, percentile, maxHedges);
+        return this;
+    }
+
+    public Try<T> named(String name) {
+        policy.named(name);
+        return this;
+    }
+
+    public Try<T> withListener(RetryListener listener) {
+        policy.withListener(listener);
+        return this;
+    }
+
+    public Try<T> withExecutor(Executor executor) {
+        policy.withExecutor(executor);
+        return this;
+    }
+
+    public Try<T> onVirtualThreads() {
+        policy.onVirtualThreads();
+        return this;
+    }
+
+    public Try<T> withScheduler(ScheduledExecutorService scheduler) {
+        policy.withScheduler(scheduler);
+        return this;
+    }
+
+    public Try<T> withScheduler(DelayScheduler scheduler) {
+        policy.withScheduler(scheduler);
+        return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <K> Try<T> withFallbackCache(FallbackCache<K, T> cache, K key, Duration maxStaleness) {
+        Preconditions.checkArgument(!maxStaleness.isNegative(), "max staleness must not be negative");
+        this.fallbackCache = (FallbackCache<Object, T>) (FallbackCache<?, T>) cache;
+        this.fallbackKey = key;
+        this.maxStaleness = maxStaleness;
+        return this;
+    }
+
+    public Try<T> staleWhileRevalidate(Duration refreshAfter) {
+        Preconditions.checkArgument(!refreshAfter.isNegative(), "refresh after must not be negative");
+        this.refreshAfter = refreshAfter;
+        return this;
+    }
 
     public T orThrow() throws Exception {
-        return Retry.runWithRetry(callable, maxTries);
+        RetryPolicy retryPolicy = policy.build();
+        if (fallbackCache != null) {
+            return fallbackCache.getOrThrow(fallbackKey, callable, retryPolicy, maxStaleness, refreshAfter);
+        }
+        return retryPolicy.callOrThrow(callable);
     }
 
     public <E extends Throwable> T orThrow(Supplier<E> exception) throws E {
         try {
-            return Retry.runWithRetry(callable, maxTries, onRetry, delay);
+            return orThrow();
         } catch (Exception e) {
             throw exception.get();
         }
     }
 
     public CompletableFuture<T> future() {
-        return CompletableFuture.supplyAsync(() ->
-                Retry.runWithRetry(callable, maxTries, delay, onRetry, exceptionConsumer));
+        return policy.build().future(callable);
     }
 
     public Optional<T> now() {
-        return Optional.ofNullable(Retry.runWithRetry(callable, maxTries, delay, onRetry, exceptionConsumer));
+        RetryPolicy retryPolicy = policy.build();
+        if (fallbackCache != null) {
+            return Optional.ofNullable(fallbackCache.get(fallbackKey, callable, retryPolicy, maxStaleness, refreshAfter));
+        }
+        return Optional.ofNullable(retryPolicy.call(callable));
     }
 
     public static class EndlessTry<T> {
 
         private final Callable<T> callable;
 
-        private final int maxTries = Retry.INFINITE;
-        private Consumer<Exception> exceptionConsumer;
-        private Runnable onRetry;
-        private Duration delay;
+        private final RetryPolicy.Builder policy;
 
         public EndlessTry(final Callable<T> callable, final Consumer<Exception> exceptionConsumer,
                           final Runnable onRetry, final Duration delay) {
+            this(callable, RetryPolicy.builder().endless()
+                    .onException(exceptionConsumer).onRetry(onRetry).withDelay(delay));
+        }
+
+        private EndlessTry(final Callable<T> callable, final RetryPolicy.Builder policy) {
             this.callable = callable;
-            this.exceptionConsumer = exceptionConsumer;
-            this.onRetry = onRetry;
-            this.delay = delay;
+            this.policy = policy;
         }
 
         public EndlessTry<T> withDelay(Duration delay) {
-            this.delay = delay;
+            policy.withDelay(delay);
+            return this;
+        }
+
+        public EndlessTry<T> withBackoff(BackoffStrategy backoff) {
+            policy.withBackoff(backoff);
             return this;
         }
 
         public EndlessTry<T> onRetry(Runnable onRetry) {
-            this.onRetry = onRetry;
+            policy.onRetry(onRetry);
             return this;
         }
 
         public EndlessTry<T> onException(Consumer<Exception> exceptionConsumer) {
-            this.exceptionConsumer = exceptionConsumer;
+            policy.onException(exceptionConsumer);
+            return this;
+        }
+
+        public EndlessTry<T> attemptTimeout(Duration attemptTimeout) {
+            policy.attemptTimeout(attemptTimeout);
+            return this;
+        }
+
+        public EndlessTry<T> deadline(Duration deadline) {
+            policy.deadline(deadline);
+            return this;
+        }
+
+        public EndlessTry<T> withBulkhead(Bulkhead bulkhead) {
+            policy.withBulkhead(bulkhead);
+            return this;
+        }
+
+        public EndlessTry<T> withRateLimiter(RateLimiter rateLimiter) {
+            policy.withRateLimiter(rateLimiter);
+            return this;
+        }
+
+        public EndlessTry<T> stackless() {
+            policy.stackless();
+            return this;
+        }
+
+        @SafeVarargs
+        public final EndlessTry<T> retryOn(Class<? extends Exception>... exceptionTypes) {
+            policy.retryOn(exceptionTypes);
+            return this;
+        }
+
+        @SafeVarargs
+        public final EndlessTry<T> abortOn(Class<? extends Exception>... exceptionTypes) {
+            policy.abortOn(exceptionTypes);
+            return this;
+        }
+
+        public EndlessTry<T> retryIf(Predicate<Exception> retryIf) {
+            policy.retryIf(retryIf);
+            return this;
+        }
+
+        public EndlessTry<T> retryIfResult(Predicate<? super T> retryIfResult) {
+            policy.retryIfResult(retryIfResult);
+            return this;
+        }
+
+        public EndlessTry<T> named(String name) {
+            policy.named(name);
+            return this;
+        }
+
+        public EndlessTry<T> withListener(RetryListener listener) {
+            policy.withListener(listener);
+            return this;
+        }
+
+        public EndlessTry<T> withExecutor(Executor executor) {
+            policy.withExecutor(executor);
+            return this;
+        }
+
+        public EndlessTry<T> onVirtualThreads() {
+            policy.onVirtualThreads();
+            return this;
+        }
+
+        public EndlessTry<T> withScheduler(ScheduledExecutorService scheduler) {
+            policy.withScheduler(scheduler);
+            return this;
+        }
+
+        public EndlessTry<T> withScheduler(DelayScheduler scheduler) {
+            policy.withScheduler(scheduler);
+            return this;
+        }
+
+        public CompletableFuture<T> future() {
+            return policy.build().future(callable);
+        }
+    }
+
+    public static class BatchTry<T> {
+
+        private final Collection<? extends Callable<T>> callables;
+
+        private final RetryPolicy.Builder policy;
+
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+
+        private BatchTry(Collection<? extends Callable<T>> callables, RetryPolicy.Builder policy) {
+            this.callables = callables;
+            this.policy = policy;
+        }
+
+        public BatchTry<T> times(int maxTries) {
+            policy.times(maxTries);
+            return this;
+        }
+
+        public BatchTry<T> withDelay(Duration delay) {
+            policy.withDelay(delay);
+            return this;
+        }
+
+        public BatchTry<T> withBackoff(BackoffStrategy backoff) {
+            policy.withBackoff(backoff);
+            return this;
+        }
+
+        public BatchTry<T> onRetry(Runnable onRetry) {
+            policy.onRetry(onRetry);
+            return this;
+        }
+
+        public BatchTry<T> deadline(Duration deadline) {
+            policy.deadline(deadline);
+            return this;
+        }
+
+        @SafeVarargs
+        public final BatchTry<T> retryOn(Class<? extends Exception>... exceptionTypes) {
+            policy.retryOn(exceptionTypes);
+            return this;
+        }
+
+        @SafeVarargs
+        public final BatchTry<T> abortOn(Class<? extends Exception>... exceptionTypes) {
+            policy.abortOn(exceptionTypes);
+            return this;
+        }
+
+        public BatchTry<T> retryIf(Predicate<Exception> retryIf) {
+            policy.retryIf(retryIf);
+            return this;
+        }
+
+        public BatchTry<T> retryIfResult(Predicate<? super T> retryIfResult) {
+            policy.retryIfResult(retryIfResult);
+            return this;
+        }
+
+        public BatchTry<T> named(String name) {
+            policy.named(name);
+            return this;
+        }
+
+        public BatchTry<T> withListener(RetryListener listener) {
+            policy.withListener(listener);
+            return this;
+        }
+
+        public BatchTry<T> parallelism(int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        public BatchTry<T> withExecutor(Executor executor) {
+            policy.withExecutor(executor);
+            return this;
+        }
+
+        public BatchTry<T> onVirtualThreads() {
+            policy.onVirtualThreads();
+            return this;
+        }
+
+        public BatchTry<T> withScheduler(ScheduledExecutorService scheduler) {
+            policy.withScheduler(scheduler);
+            return this;
+        }
+
+        public BatchTry<T> withScheduler(DelayScheduler scheduler) {
+            policy.withScheduler(scheduler);
+            return this;
+        }
+
+        public CompletableFuture<BatchResult<T>> future() {
+            return policy.build().futureAll(callables, parallelism);
+        }
+
+        public BatchResult<T> now() {
+            return future().join();
+        }
+    }
+
+    public static class ResumableTry<T> {
+
+        private final ResumableSource<T> source;
+
+        private final RetryPolicy.Builder policy;
+
+        private ResumableTry(ResumableSource<T> source, RetryPolicy.Builder policy) {
+            this.source = source;
+            this.policy = policy;
+        }
+
+        public ResumableTry<T> times(int maxTries) {
+            policy.times(maxTries);
+            return this;
+        }
+
+        public ResumableTry<T> endless() {
+            policy.endless();
+            return this;
+        }
+
+        public ResumableTry<T> withDelay(Duration delay) {
+            policy.withDelay(delay);
+            return this;
+        }
+
+        public ResumableTry<T> withBackoff(BackoffStrategy backoff) {
+            policy.withBackoff(backoff);
+            return this;
+        }
+
+        public ResumableTry<T> onRetry(Runnable onRetry) {
+            policy.onRetry(onRetry);
+            return this;
+        }
+
+        @SafeVarargs
+        public final ResumableTry<T> retryOn(Class<? extends Exception>... exceptionTypes) {
+            policy.retryOn(exceptionTypes);
+            return this;
+        }
+
+        @SafeVarargs
+        public final ResumableTry<T> abortOn(Class<? extends Exception>... exceptionTypes) {
+            policy.abortOn(exceptionTypes);
+            return this;
+        }
+
+        public ResumableTry<T> retryIf(Predicate<Exception> retryIf) {
+            policy.retryIf(retryIf);
+            return this;
+        }
+
+        public ResumableIterator<T> iterator() {
+            return policy.build().iterate(source);
+        }
+
+        public Stream<T> stream() {
+            return iterator().stream();
+        }
+
+        public void forEachOrThrow(Consumer<? super T> action) throws Exception {
+            try (ResumableIterator<T> iterator = iterator()) {
+                iterator.forEachRemainingOrThrow(action);
+            }
+        }
+    }
+
+    public static class AsyncTry<T> {
+
+        private final Supplier<? extends CompletionStage<T>> supplier;
+
+        private final RetryPolicy.Builder policy;
+
+        private AsyncTry(Supplier<? extends CompletionStage<T>> supplier, RetryPolicy.Builder policy) {
+            this.supplier = supplier;
+            this.policy = policy;
+        }
+
+        public AsyncTry<T> times(int maxTries) {
+            policy.times(maxTries);
+            return this;
+        }
+
+        public AsyncTry<T> withDelay(Duration delay) {
+            policy.withDelay(delay);
+            return this;
+        }
+
+        public AsyncTry<T> withBackoff(BackoffStrategy backoff) {
+            policy.withBackoff(backoff);
+            return this;
+        }
+
+        public AsyncTry<T> onRetry(Runnable onRetry) {
+            policy.onRetry(onRetry);
+            return this;
+        }
+
+        public AsyncTry<T> onException(Consumer<Exception> exceptionConsumer) {
+            policy.onException(exceptionConsumer);
+            return this;
+        }
+
+        public AsyncTry<T> withCircuitBreaker(CircuitBreaker circuitBreaker) {
+            policy.withCircuitBreaker(circuitBreaker);
+            return this;
+        }
+
+        public AsyncTry<T> withRetryBudget(RetryBudget retryBudget) {
+            policy.withRetryBudget(retryBudget);
+            return this;
+        }
+
+        public AsyncTry<T> withBulkhead(Bulkhead bulkhead) {
+            policy.withBulkhead(bulkhead);
+            return this;
+        }
+
+        public AsyncTry<T> withRateLimiter(RateLimiter rateLimiter) {
+            policy.withRateLimiter(rateLimiter);
+            return this;
+        }
+
+        public AsyncTry<T> withAdaptiveAttempts(AdaptiveAttempts adaptiveAttempts) {
+            policy.withAdaptiveAttempts(adaptiveAttempts);
+            return this;
+        }
+
+        @SafeVarargs
+        public final AsyncTry<T> retryOn(Class<? extends Exception>... exceptionTypes) {
+            policy.retryOn(exceptionTypes);
+            return this;
+        }
+
+        @SafeVarargs
+        public final AsyncTry<T> abortOn(Class<? extends Exception>... exceptionTypes) {
+            policy.abortOn(exceptionTypes);
+            return this;
+        }
+
+        public AsyncTry<T> retryIf(Predicate<Exception> retryIf) {
+            policy.retryIf(retryIf);
+            return this;
+        }
+
+        public AsyncTry<T> retryIfResult(Predicate<? super T> retryIfResult) {
+            policy.retryIfResult(retryIfResult);
+            return this;
+        }
+
+        public AsyncTry<T> attemptTimeout(Duration attemptTimeout) {
+            policy.attemptTimeout(attemptTimeout);
+            return this;
+        }
+
+        public AsyncTry<T> deadline(Duration deadline) {
+            policy.deadline(deadline);
+            return this;
+        }
+
+        public AsyncTry<T> stackless() {
+            policy.stackless();
+            return this;
+        }
+
+        public AsyncTry<T> named(String name) {
+            policy.named(name);
+            return this;
+        }
+
+        public AsyncTry<T> withListener(RetryListener listener) {
+            policy.withListener(listener);
+            return this;
+        }
+
+        public AsyncTry<T> withScheduler(ScheduledExecutorService scheduler) {
+            policy.withScheduler(scheduler);
+            return this;
+        }
+
+        public AsyncTry<T> withScheduler(DelayScheduler scheduler) {
+            policy.withScheduler(scheduler);
             return this;
         }
 
         public CompletableFuture<T> future() {
-            return CompletableFuture.supplyAsync(() ->
-                    Retry.runWithRetry(callable, maxTries, delay, onRetry, exceptionConsumer));
+            return policy.build().async(supplier);
         }
     }
 }
@@ -0,0 +1,33 @@
+package it.podlodowski.javatry;
+
+import it.podlodowski.javatry.util.function.BooleanCallable;
+import it.podlodowski.javatry.util.retry.RetryPolicy;
+
+import java.util.Optional;
+
+public class TryBoolean extends PrimitiveTry<BooleanCallable, TryBoolean> {
+
+    private TryBoolean(BooleanCallable callable, RetryPolicy.Builder policy) {
+        super(callable, policy);
+    }
+
+    public static TryBoolean it(BooleanCallable callable) {
+        return new TryBoolean(callable, RetryPolicy.builder());
+    }
+
+    public static TryBoolean it(BooleanCallable callable, RetryPolicy policy) {
+        return new TryBoolean(callable, policy.toBuilder());
+    }
+
+    public boolean orThrow() throws Exception {
+        return policy().callBooleanOrThrow(callable);
+    }
+
+    public Optional<Boolean> now() {
+        return policy().callBoolean(callable);
+    }
+
+    public boolean orElse(boolean other) {
+        return now().orElse(other);
+    }
+}
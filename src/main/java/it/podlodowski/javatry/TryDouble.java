@@ -0,0 +1,33 @@
+package it.podlodowski.javatry;
+
+import it.podlodowski.javatry.util.function.DoubleCallable;
+import it.podlodowski.javatry.util.retry.RetryPolicy;
+
+import java.util.OptionalDouble;
+
+public class TryDouble extends PrimitiveTry<DoubleCallable, TryDouble> {
+
+    private TryDouble(DoubleCallable callable, RetryPolicy.Builder policy) {
+        super(callable, policy);
+    }
+
+    public static TryDouble it(DoubleCallable callable) {
+        return new TryDouble(callable, RetryPolicy.builder());
+    }
+
+    public static TryDouble it(DoubleCallable callable, RetryPolicy policy) {
+        return new TryDouble(callable, policy.toBuilder());
+    }
+
+    public double orThrow() throws Exception {
+        return policy().callDoubleOrThrow(callable);
+    }
+
+    public OptionalDouble now() {
+        return policy().callDouble(callable);
+    }
+
+    public double orElse(double other) {
+        return now().orElse(other);
+    }
+}
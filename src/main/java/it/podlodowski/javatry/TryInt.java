@@ -0,0 +1,33 @@
+package it.podlodowski.javatry;
+
+import it.podlodowski.javatry.util.function.IntCallable;
+import it.podlodowski.javatry.util.retry.RetryPolicy;
+
+import java.util.OptionalInt;
+
+public class TryInt extends PrimitiveTry<IntCallable, TryInt> {
+
+    private TryInt(IntCallable callable, RetryPolicy.Builder policy) {
+        super(callable, policy);
+    }
+
+    public static TryInt it(IntCallable callable) {
+        return new TryInt(callable, RetryPolicy.builder());
+    }
+
+    public static TryInt it(IntCallable callable, RetryPolicy policy) {
+        return new TryInt(callable, policy.toBuilder());
+    }
+
+    public int orThrow() throws Exception {
+        return policy().callIntOrThrow(callable);
+    }
+
+    public OptionalInt now() {
+        return policy().callInt(callable);
+    }
+
+    public int orElse(int other) {
+        return now().orElse(other);
+    }
+}
@@ -0,0 +1,33 @@
+package it.podlodowski.javatry;
+
+import it.podlodowski.javatry.util.function.LongCallable;
+import it.podlodowski.javatry.util.retry.RetryPolicy;
+
+import java.util.OptionalLong;
+
+public class TryLong extends PrimitiveTry<LongCallable, TryLong> {
+
+    private TryLong(LongCallable callable, RetryPolicy.Builder policy) {
+        super(callable, policy);
+    }
+
+    public static TryLong it(LongCallable callable) {
+        return new TryLong(callable, RetryPolicy.builder());
+    }
+
+    public static TryLong it(LongCallable callable, RetryPolicy policy) {
+        return new TryLong(callable, policy.toBuilder());
+    }
+
+    public long orThrow() throws Exception {
+        return policy().callLongOrThrow(callable);
+    }
+
+    public OptionalLong now() {
+        return policy().callLong(callable);
+    }
+
+    public long orElse(long other) {
+        return now().orElse(other);
+    }
+}
@@ -0,0 +1,154 @@
+package it.podlodowski.javatry.util.adaptive;
+
+import it.podlodowski.javatry.util.precondition.Preconditions;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public class AdaptiveAttempts {
+
+    public static final long NO_MORE_ATTEMPTS = -1;
+
+    private static final int BUCKETS = 16;
+    private static final int BUCKETS_PER_HALF_LIFE = 4;
+
+    private final long bucketNanos;
+    private final double[] weights = new double[BUCKETS];
+    private final Bucket[] buckets = new Bucket[BUCKETS];
+    private final long latencySloNanos;
+    private final int maxAttempts;
+    private final double minSuccessProbability;
+
+    private AdaptiveAttempts(Builder builder) {
+        this.bucketNanos = Math.max(1, builder.halfLife.toNanos() / BUCKETS_PER_HALF_LIFE);
+        for (int i = 0; i < BUCKETS; i++) {
+            weights[i] = Math.pow(0.5, i / (double) BUCKETS_PER_HALF_LIFE);
+            buckets[i] = new Bucket();
+        }
+        this.latencySloNanos = builder.latencySlo.toNanos();
+        this.maxAttempts = builder.maxAttempts;
+        this.minSuccessProbability = builder.minSuccessProbability;
+    }
+
+    public static AdaptiveAttempts withinSlo(Duration latencySlo) {
+        return builder().latencySlo(latencySlo).build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public void onAttempt(long elapsedNanos, boolean success) {
+        Bucket bucket = bucket(System.nanoTime());
+        bucket.attempts.increment();
+        bucket.latencyNanos.add(elapsedNanos);
+        if (success) {
+            bucket.successes.increment();
+        }
+    }
+
+    public double successProbability() {
+        double[] totals = totals();
+        return (totals[1] + 1) / (totals[0] + 2);
+    }
+
+    public long meanLatencyNanos() {
+        double[] totals = totals();
+        return totals[0] > 0 ? (long) (totals[2] / totals[0]) : 0;
+    }
+
+    public long delayNanos(int attempts, long elapsedNanos, long proposedDelayNanos) {
+        if (attempts >= maxAttempts) {
+            return NO_MORE_ATTEMPTS;
+        }
+        double[] totals = totals();
+        double successProbability = (totals[1] + 1) / (totals[0] + 2);
+        if (successProbability < minSuccessProbability) {
+            return NO_MORE_ATTEMPTS;
+        }
+        long meanLatencyNanos = totals[0] > 0 ? (long) (totals[2] / totals[0]) : 0;
+        long slackNanos = latencySloNanos - elapsedNanos - meanLatencyNanos;
+        if (slackNanos < 0) {
+            return NO_MORE_ATTEMPTS;
+        }
+        return Math.min(proposedDelayNanos, slackNanos);
+    }
+
+    private double[] totals() {
+        long epoch = System.nanoTime() / bucketNanos;
+        double attempts = 0;
+        double successes = 0;
+        double latencyNanos = 0;
+        for (Bucket bucket : buckets) {
+            long age = epoch - bucket.epoch.get();
+            if (age >= 0 && age < BUCKETS) {
+                double weight = weights[(int) age];
+                attempts += weight * bucket.attempts.sum();
+                successes += weight * bucket.successes.sum();
+                latencyNanos += weight * bucket.latencyNanos.sum();
+            }
+        }
+        return new double[]{attempts, successes, latencyNanos};
+    }
+
+    private Bucket bucket(long nowNanos) {
+        long epoch = nowNanos / bucketNanos;
+        Bucket bucket = buckets[(int) Math.floorMod(epoch, (long) BUCKETS)];
+        long current = bucket.epoch.get();
+        if (current != epoch && bucket.epoch.compareAndSet(current, epoch)) {
+            bucket.attempts.reset();
+            bucket.successes.reset();
+            bucket.latencyNanos.reset();
+        }
+        return bucket;
+    }
+
+    private static final class Bucket {
+
+        private final AtomicLong epoch = new AtomicLong(Long.MIN_VALUE);
+        private final LongAdder attempts = new LongAdder();
+        private final LongAdder successes = new LongAdder();
+        private final LongAdder latencyNanos = new LongAdder();
+    }
+
+    public static class Builder {
+
+        private Duration latencySlo = Duration.ofSeconds(1);
+        private Duration halfLife = Duration.ofSeconds(10);
+        private int maxAttempts = 10;
+        private double minSuccessProbability = 0.05;
+
+        private Builder() {
+        }
+
+        public Builder latencySlo(Duration latencySlo) {
+            Preconditions.checkArgument(!latencySlo.isNegative() && !latencySlo.isZero(), "latency SLO must be positive");
+            this.latencySlo = latencySlo;
+            return this;
+        }
+
+        public Builder halfLife(Duration halfLife) {
+            Preconditions.checkArgument(!halfLife.isNegative() && !halfLife.isZero(), "half life must be positive");
+            this.halfLife = halfLife;
+            return this;
+        }
+
+        public Builder maxAttempts(int maxAttempts) {
+            Preconditions.checkArgument(maxAttempts > 0, "max attempts must be positive");
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        public Builder minSuccessProbability(double minSuccessProbability) {
+            Preconditions.checkArgument(minSuccessProbability >= 0 && minSuccessProbability < 1,
+                    "min success probability must be in [0, 1)");
+            this.minSuccessProbability = minSuccessProbability;
+            return this;
+        }
+
+        public AdaptiveAttempts build() {
+            return new AdaptiveAttempts(this);
+        }
+    }
+}
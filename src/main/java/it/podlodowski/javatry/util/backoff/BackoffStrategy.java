@@ -0,0 +1,12 @@
+package it.podlodowski.javatry.util.backoff;
+
+@FunctionalInterface
+public interface BackoffStrategy {
+
+    /**
+     * @param retry              number of the upcoming retry, starting from 1
+     * @param previousDelayNanos delay returned for the previous retry, 0 before the first one
+     * @return delay in nanoseconds to wait before the upcoming retry
+     */
+    long delayNanos(int retry, long previousDelayNanos);
+}
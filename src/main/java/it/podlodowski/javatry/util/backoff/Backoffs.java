@@ -0,0 +1,44 @@
+package it.podlodowski.javatry.util.backoff;
+
+import it.podlodowski.javatry.util.precondition.Preconditions;
+
+import java.time.Duration;
+
+public class Backoffs {
+
+    private static final BackoffStrategy NONE = (retry, previousDelayNanos) -> 0;
+
+    Backoffs() throws InstantiationException {
+        throw new InstantiationException("Instances of this class are forbidden.");
+    }
+
+    public static BackoffStrategy none() {
+        return NONE;
+    }
+
+    public static BackoffStrategy fixed(Duration delay) {
+        return delay == null ? NONE : new FixedBackoff(delay.toNanos());
+    }
+
+    public static BackoffStrategy exponential(Duration initialDelay) {
+        return exponential(initialDelay, 2.0);
+    }
+
+    public static BackoffStrategy exponential(Duration initialDelay, double multiplier) {
+        Preconditions.checkArgument(multiplier >= 1.0, "multiplier must not be lower than 1");
+        return new ExponentialBackoff(initialDelay.toNanos(), multiplier);
+    }
+
+    public static BackoffStrategy fullJitter(BackoffStrategy strategy) {
+        return new FullJitterBackoff(strategy);
+    }
+
+    public static BackoffStrategy decorrelatedJitter(Duration baseDelay, Duration maxDelay) {
+        Preconditions.checkArgument(baseDelay.compareTo(maxDelay) <= 0, "base delay must not exceed max delay");
+        return new DecorrelatedJitterBackoff(baseDelay.toNanos(), maxDelay.toNanos());
+    }
+
+    public static BackoffStrategy capped(BackoffStrategy strategy, Duration maxDelay) {
+        return new CappedBackoff(strategy, maxDelay.toNanos());
+    }
+}
@@ -0,0 +1,17 @@
+package it.podlodowski.javatry.util.backoff;
+
+class CappedBackoff implements BackoffStrategy {
+
+    private final BackoffStrategy strategy;
+    private final long maxDelayNanos;
+
+    CappedBackoff(BackoffStrategy strategy, long maxDelayNanos) {
+        this.strategy = strategy;
+        this.maxDelayNanos = maxDelayNanos;
+    }
+
+    @Override
+    public long delayNanos(int retry, long previousDelayNanos) {
+        return Math.min(strategy.delayNanos(retry, previousDelayNanos), maxDelayNanos);
+    }
+}
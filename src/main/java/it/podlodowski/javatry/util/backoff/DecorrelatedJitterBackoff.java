@@ -0,0 +1,24 @@
+package it.podlodowski.javatry.util.backoff;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+class DecorrelatedJitterBackoff implements BackoffStrategy {
+
+    private final long baseDelayNanos;
+    private final long maxDelayNanos;
+
+    DecorrelatedJitterBackoff(long baseDelayNanos, long maxDelayNanos) {
+        this.baseDelayNanos = baseDelayNanos;
+        this.maxDelayNanos = maxDelayNanos;
+    }
+
+    @Override
+    public long delayNanos(int retry, long previousDelayNanos) {
+        long previous = Math.max(previousDelayNanos, baseDelayNanos);
+        long upperBound = previous > maxDelayNanos / 3 ? maxDelayNanos : previous * 3;
+        if (upperBound <= baseDelayNanos) {
+            return baseDelayNanos;
+        }
+        return ThreadLocalRandom.current().nextLong(baseDelayNanos, upperBound);
+    }
+}
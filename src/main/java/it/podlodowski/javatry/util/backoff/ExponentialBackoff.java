@@ -0,0 +1,18 @@
+package it.podlodowski.javatry.util.backoff;
+
+class ExponentialBackoff implements BackoffStrategy {
+
+    private final long initialDelayNanos;
+    private final double multiplier;
+
+    ExponentialBackoff(long initialDelayNanos, double multiplier) {
+        this.initialDelayNanos = initialDelayNanos;
+        this.multiplier = multiplier;
+    }
+
+    @Override
+    public long delayNanos(int retry, long previousDelayNanos) {
+        double delay = initialDelayNanos * Math.pow(multiplier, retry - 1);
+        return delay >= Long.MAX_VALUE ? Long.MAX_VALUE : (long) delay;
+    }
+}
@@ -0,0 +1,15 @@
+package it.podlodowski.javatry.util.backoff;
+
+class FixedBackoff implements BackoffStrategy {
+
+    private final long delayNanos;
+
+    FixedBackoff(long delayNanos) {
+        this.delayNanos = delayNanos;
+    }
+
+    @Override
+    public long delayNanos(int retry, long previousDelayNanos) {
+        return delayNanos;
+    }
+}
@@ -0,0 +1,21 @@
+package it.podlodowski.javatry.util.backoff;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+class FullJitterBackoff implements BackoffStrategy {
+
+    private final BackoffStrategy strategy;
+
+    FullJitterBackoff(BackoffStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    @Override
+    public long delayNanos(int retry, long previousDelayNanos) {
+        long upperBound = strategy.delayNanos(retry, previousDelayNanos);
+        if (upperBound <= 0) {
+            return 0;
+        }
+        return ThreadLocalRandom.current().nextLong(upperBound);
+    }
+}
@@ -0,0 +1,187 @@
+package it.podlodowski.javatry.util.balancer;
+
+import it.podlodowski.javatry.util.precondition.Preconditions;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+public class LoadBalancer<T> implements Callable<T> {
+
+    public enum Strategy {
+        FAILOVER, ROUND_ROBIN, LEAST_OUTSTANDING, LATENCY_WEIGHTED
+    }
+
+    private final Endpoint<T>[] endpoints;
+    private final Strategy strategy;
+    private final long ejectionNanos;
+    private final double latencyWeight;
+    private final Predicate<? super Exception> ejectOn;
+    private final AtomicInteger next = new AtomicInteger();
+
+    @SuppressWarnings("unchecked")
+    private LoadBalancer(Builder<T> builder) {
+        this.endpoints = new Endpoint[builder.callables.size()];
+        for (int i = 0; i < endpoints.length; i++) {
+            endpoints[i] = new Endpoint<>(builder.callables.get(i));
+        }
+        this.strategy = builder.strategy;
+        this.ejectionNanos = builder.ejection.toNanos();
+        this.latencyWeight = builder.latencyWeight;
+        this.ejectOn = builder.ejectOn;
+    }
+
+    public static <T> LoadBalancer<T> of(List<? extends Callable<T>> callables, Strategy strategy) {
+        return LoadBalancer.<T>builder(callables).strategy(strategy).build();
+    }
+
+    public static <T> Builder<T> builder(List<? extends Callable<T>> callables) {
+        return new Builder<>(callables);
+    }
+
+    @Override
+    public T call() throws Exception {
+        Endpoint<T> endpoint = select(System.nanoTime());
+        endpoint.outstanding.incrementAndGet();
+        long startNanos = System.nanoTime();
+        try {
+            T result = endpoint.callable.call();
+            endpoint.onSuccess(System.nanoTime() - startNanos, latencyWeight);
+            return result;
+        } catch (Exception e) {
+            if (ejectOn.test(e)) {
+                endpoint.eject(System.nanoTime() + ejectionNanos);
+            }
+            throw e;
+        } finally {
+            endpoint.outstanding.decrementAndGet();
+        }
+    }
+
+    public int getEndpointCount() {
+        return endpoints.length;
+    }
+
+    public int getHealthyCount() {
+        long now = System.nanoTime();
+        int healthy = 0;
+        for (Endpoint<T> endpoint : endpoints) {
+            if (endpoint.isHealthy(now)) {
+                healthy++;
+            }
+        }
+        return healthy;
+    }
+
+    private Endpoint<T> select(long now) {
+        int start = strategy == Strategy.FAILOVER ? 0 : Math.floorMod(next.getAndIncrement(), endpoints.length);
+        Endpoint<T> selected = null;
+        Endpoint<T> soonestHealthy = null;
+        for (int i = 0; i < endpoints.length; i++) {
+            Endpoint<T> candidate = endpoints[(start + i) % endpoints.length];
+            if (!candidate.isHealthy(now)) {
+                if (soonestHealthy == null || candidate.ejectedUntilNanos - soonestHealthy.ejectedUntilNanos < 0) {
+                    soonestHealthy = candidate;
+                }
+                continue;
+            }
+            if (strategy == Strategy.FAILOVER || strategy == Strategy.ROUND_ROBIN) {
+                return candidate;
+            }
+            if (selected == null || score(candidate) < score(selected)) {
+                selected = candidate;
+            }
+        }
+        return selected != null ? selected : soonestHealthy;
+    }
+
+    private double score(Endpoint<T> endpoint) {
+        int outstanding = endpoint.outstanding.get();
+        if (strategy == Strategy.LEAST_OUTSTANDING) {
+            return outstanding;
+        }
+        return endpoint.latencyNanos() * (outstanding + 1);
+    }
+
+    private static final class Endpoint<T> {
+
+        private final Callable<T> callable;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicLong latency = new AtomicLong(Double.doubleToLongBits(0));
+        private volatile long ejectedUntilNanos;
+        private volatile boolean ejected;
+
+        private Endpoint(Callable<T> callable) {
+            this.callable = callable;
+        }
+
+        private boolean isHealthy(long now) {
+            return !ejected || ejectedUntilNanos - now <= 0;
+        }
+
+        private double latencyNanos() {
+            return Double.longBitsToDouble(latency.get());
+        }
+
+        private void eject(long untilNanos) {
+            ejectedUntilNanos = untilNanos;
+            ejected = true;
+        }
+
+        private void onSuccess(long elapsedNanos, double weight) {
+            ejected = false;
+            while (true) {
+                long bits = latency.get();
+                double current = Double.longBitsToDouble(bits);
+                double updated = current == 0 ? elapsedNanos : current + weight * (elapsedNanos - current);
+                if (latency.compareAndSet(bits, Double.doubleToLongBits(updated))) {
+                    return;
+                }
+            }
+        }
+    }
+
+    public static class Builder<T> {
+
+        private final List<Callable<T>> callables;
+        private Strategy strategy = Strategy.ROUND_ROBIN;
+        private Duration ejection = Duration.ofSeconds(10);
+        private double latencyWeight = 0.3;
+        private Predicate<? super Exception> ejectOn = e -> true;
+
+        private Builder(List<? extends Callable<T>> callables) {
+            Preconditions.checkArgument(!callables.isEmpty(), "at least one callable is required");
+            this.callables = new ArrayList<>(callables);
+        }
+
+        public Builder<T> strategy(Strategy strategy) {
+            this.strategy = strategy;
+            return this;
+        }
+
+        public Builder<T> ejectFor(Duration ejection) {
+            Preconditions.checkArgument(!ejection.isNegative(), "ejection must not be negative");
+            this.ejection = ejection;
+            return this;
+        }
+
+        public Builder<T> latencyWeight(double latencyWeight) {
+            Preconditions.checkArgument(latencyWeight > 0 && latencyWeight <= 1, "latency weight must be in (0, 1]");
+            this.latencyWeight = latencyWeight;
+            return this;
+        }
+
+        public Builder<T> ejectOn(Predicate<? super Exception> ejectOn) {
+            this.ejectOn = ejectOn;
+            return this;
+        }
+
+        public LoadBalancer<T> build() {
+            return new LoadBalancer<>(this);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package it.podlodowski.javatry.util.budget;
+
+import it.podlodowski.javatry.util.precondition.Preconditions;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public class RetryBudget {
+
+    private static final int WINDOW_BUCKETS = 10;
+
+    private final double retryRatio;
+    private final double minRetriesPerWindow;
+    private final long bucketNanos;
+    private final Bucket[] buckets = new Bucket[WINDOW_BUCKETS];
+
+    private RetryBudget(Builder builder) {
+        long windowNanos = builder.window.toNanos();
+        this.retryRatio = builder.retryRatio;
+        this.minRetriesPerWindow = builder.minRetriesPerSecond * windowNanos / (double) TimeUnit.SECONDS.toNanos(1);
+        this.bucketNanos = Math.max(1, windowNanos / WINDOW_BUCKETS);
+        for (int i = 0; i < WINDOW_BUCKETS; i++) {
+            buckets[i] = new Bucket();
+        }
+    }
+
+    public static RetryBudget of(double retryRatio) {
+        return builder().retryRatio(retryRatio).build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public void onFirstAttempt() {
+        bucket(System.nanoTime()).firstAttempts.increment();
+    }
+
+    public boolean tryAcquireRetry() {
+        long now = System.nanoTime();
+        long epoch = now / bucketNanos;
+        long firstAttempts = 0;
+        long retries = 0;
+        for (Bucket bucket : buckets) {
+            long bucketEpoch = bucket.epoch.get();
+            if (bucketEpoch <= epoch && bucketEpoch > epoch - WINDOW_BUCKETS) {
+                firstAttempts += bucket.firstAttempts.sum();
+                retries += bucket.retries.sum();
+            }
+        }
+        if (retries + 1 > retryRatio * firstAttempts + minRetriesPerWindow) {
+            return false;
+        }
+        bucket(now).retries.increment();
+        return true;
+    }
+
+    private Bucket bucket(long nowNanos) {
+        long epoch = nowNanos / bucketNanos;
+        Bucket bucket = buckets[(int) Math.floorMod(epoch, (long) WINDOW_BUCKETS)];
+        long current = bucket.epoch.get();
+        if (current != epoch && bucket.epoch.compareAndSet(current, epoch)) {
+            bucket.firstAttempts.reset();
+            bucket.retries.reset();
+        }
+        return bucket;
+    }
+
+    private static final class Bucket {
+
+        private final AtomicLong epoch = new AtomicLong(Long.MIN_VALUE);
+        private final LongAdder firstAttempts = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+    }
+
+    public static class Builder {
+
+        private double retryRatio = 0.1;
+        private double minRetriesPerSecond = 10;
+        private Duration window = Duration.ofSeconds(10);
+
+        private Builder() {
+        }
+
+        public Builder retryRatio(double retryRatio) {
+            Preconditions.checkArgument(retryRatio >= 0, "retry ratio must not be negative");
+            this.retryRatio = retryRatio;
+            return this;
+        }
+
+        public Builder minRetriesPerSecond(double minRetriesPerSecond) {
+            Preconditions.checkArgument(minRetriesPerSecond >= 0, "min retries per second must not be negative");
+            this.minRetriesPerSecond = minRetriesPerSecond;
+            return this;
+        }
+
+        public Builder window(Duration window) {
+            Preconditions.checkArgument(!window.isNegative() && !window.isZero(), "window must be positive");
+            this.window = window;
+            return this;
+        }
+
+        public RetryBudget build() {
+            return new RetryBudget(this);
+        }
+    }
+}
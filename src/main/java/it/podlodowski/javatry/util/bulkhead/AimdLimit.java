@@ -0,0 +1,23 @@
+package it.podlodowski.javatry.util.bulkhead;
+
+class AimdLimit implements LimitAlgorithm {
+
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+
+    AimdLimit(long latencyThresholdNanos, double backoffRatio) {
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.backoffRatio = backoffRatio;
+    }
+
+    @Override
+    public double update(double limit, long latencyNanos, boolean dropped, int inFlight) {
+        if (dropped || latencyNanos > latencyThresholdNanos) {
+            return limit * backoffRatio;
+        }
+        if (inFlight * 2 >= limit) {
+            return limit + 1 / limit;
+        }
+        return limit;
+    }
+}
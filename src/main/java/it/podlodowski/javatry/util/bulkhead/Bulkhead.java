@@ -0,0 +1,177 @@
+package it.podlodowski.javatry.util.bulkhead;
+
+import it.podlodowski.javatry.util.precondition.Preconditions;
+import it.podlodowski.javatry.util.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class Bulkhead {
+
+    private final LimitAlgorithm algorithm;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxWaitingCalls;
+    private final Executor executor;
+
+    private final AtomicLong limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Queue<Runnable> waiters = new ConcurrentLinkedQueue<>();
+
+    private Bulkhead(Builder builder) {
+        this.algorithm = builder.algorithm;
+        this.minLimit = builder.minLimit;
+        this.maxLimit = builder.maxLimit;
+        this.maxWaitingCalls = builder.maxWaitingCalls;
+        this.executor = builder.executor;
+        this.limit = new AtomicLong(Double.doubleToLongBits(builder.initialLimit));
+    }
+
+    public static Bulkhead of(int maxConcurrentCalls) {
+        return builder().maxConcurrentCalls(maxConcurrentCalls).build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int getLimit() {
+        return (int) Double.longBitsToDouble(limit.get());
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    public boolean tryAcquirePermission() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public boolean offer(Runnable whenPermitted) {
+        if (waiting.incrementAndGet() > maxWaitingCalls) {
+            waiting.decrementAndGet();
+            return false;
+        }
+        waiters.offer(whenPermitted);
+        drain();
+        return true;
+    }
+
+    public void onComplete(long latencyNanos, boolean success) {
+        if (algorithm != null) {
+            int current = inFlight.get();
+            while (true) {
+                long bits = limit.get();
+                double updated = algorithm.update(Double.longBitsToDouble(bits), latencyNanos, !success, current);
+                updated = Math.max(minLimit, Math.min(maxLimit, updated));
+                if (limit.compareAndSet(bits, Double.doubleToLongBits(updated))) {
+                    break;
+                }
+            }
+        }
+        release();
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+        drain();
+    }
+
+    private void drain() {
+        while (!waiters.isEmpty() && tryAcquirePermission()) {
+            Runnable waiter = waiters.poll();
+            if (waiter == null) {
+                inFlight.decrementAndGet();
+                return;
+            }
+            waiting.decrementAndGet();
+            try {
+                executor.execute(waiter);
+            } catch (RuntimeException e) {
+                waiter.run();
+            }
+        }
+    }
+
+    public static class Builder {
+
+        private LimitAlgorithm algorithm;
+        private int initialLimit = 25;
+        private int minLimit = 1;
+        private int maxLimit = Integer.MAX_VALUE;
+        private int maxWaitingCalls = 0;
+        private Executor executor = Schedulers.defaultExecutor();
+
+        private Builder() {
+        }
+
+        public Builder maxConcurrentCalls(int maxConcurrentCalls) {
+            Preconditions.checkArgument(maxConcurrentCalls > 0, "max concurrent calls must be positive");
+            this.algorithm = null;
+            this.initialLimit = maxConcurrentCalls;
+            this.minLimit = maxConcurrentCalls;
+            this.maxLimit = maxConcurrentCalls;
+            return this;
+        }
+
+        public Builder initialLimit(int initialLimit) {
+            Preconditions.checkArgument(initialLimit > 0, "initial limit must be positive");
+            this.initialLimit = initialLimit;
+            return this;
+        }
+
+        public Builder limitRange(int minLimit, int maxLimit) {
+            Preconditions.checkArgument(minLimit > 0 && minLimit <= maxLimit, "limit range must be positive and ordered");
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+            return this;
+        }
+
+        public Builder aimd(Duration latencyThreshold, double backoffRatio) {
+            Preconditions.checkArgument(!latencyThreshold.isNegative() && !latencyThreshold.isZero(),
+                    "latency threshold must be positive");
+            Preconditions.checkArgument(backoffRatio > 0 && backoffRatio < 1, "backoff ratio must be within (0, 1) range");
+            this.algorithm = new AimdLimit(latencyThreshold.toNanos(), backoffRatio);
+            return this;
+        }
+
+        public Builder gradient() {
+            this.algorithm = new GradientLimit();
+            return this;
+        }
+
+        public Builder maxWaitingCalls(int maxWaitingCalls) {
+            Preconditions.checkArgument(maxWaitingCalls >= 0, "max waiting calls must not be negative");
+            this.maxWaitingCalls = maxWaitingCalls;
+            return this;
+        }
+
+        public Builder withExecutor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public Bulkhead build() {
+            Preconditions.checkArgument(initialLimit >= minLimit && initialLimit <= maxLimit,
+                    "initial limit must be within limit range");
+            return new Bulkhead(this);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package it.podlodowski.javatry.util.bulkhead;
+
+public class BulkheadFullException extends RuntimeException {
+
+    public BulkheadFullException() {
+        super("Bulkhead is full", null, false, false);
+    }
+}
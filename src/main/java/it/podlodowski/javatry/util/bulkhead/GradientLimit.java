@@ -0,0 +1,34 @@
+package it.podlodowski.javatry.util.bulkhead;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+class GradientLimit implements LimitAlgorithm {
+
+    private static final double SMOOTHING = 0.2;
+    private static final int MIN_LATENCY_RESET_SAMPLES = 1_000;
+
+    private final AtomicLong minLatencyNanos = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong samples = new AtomicLong();
+
+    @Override
+    public double update(double limit, long latencyNanos, boolean dropped, int inFlight) {
+        if (dropped) {
+            return smooth(limit, limit / 2);
+        }
+        long latency = Math.max(1, latencyNanos);
+        if (samples.incrementAndGet() % MIN_LATENCY_RESET_SAMPLES == 0) {
+            minLatencyNanos.set(latency);
+        } else {
+            minLatencyNanos.accumulateAndGet(latency, Math::min);
+        }
+        if (inFlight * 2 < limit) {
+            return limit;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, (double) minLatencyNanos.get() / latency));
+        return smooth(limit, limit * gradient + Math.sqrt(limit));
+    }
+
+    private static double smooth(double limit, double newLimit) {
+        return limit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+    }
+}
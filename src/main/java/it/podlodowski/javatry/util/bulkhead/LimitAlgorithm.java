@@ -0,0 +1,7 @@
+package it.podlodowski.javatry.util.bulkhead;
+
+@FunctionalInterface
+interface LimitAlgorithm {
+
+    double update(double limit, long latencyNanos, boolean dropped, int inFlight);
+}
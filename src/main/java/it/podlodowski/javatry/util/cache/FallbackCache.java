@@ -0,0 +1,154 @@
+package it.podlodowski.javatry.util.cache;
+
+import it.podlodowski.javatry.util.precondition.Preconditions;
+import it.podlodowski.javatry.util.retry.RetryPolicy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+public class FallbackCache<K, V> {
+
+    private final int maximumSize;
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    private FallbackCache(int maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    public static <K, V> FallbackCache<K, V> create(int maximumSize) {
+        Preconditions.checkArgument(maximumSize > 0, "maximum size must be positive");
+        return new FallbackCache<>(maximumSize);
+    }
+
+    public V get(K key, Callable<V> loader, RetryPolicy policy, Duration maxStaleness, Duration refreshAfter) {
+        long now = System.nanoTime();
+        Entry<V> cached = serveWhileRevalidating(key, loader, policy, maxStaleness, refreshAfter, now);
+        if (cached != null) {
+            return cached.value;
+        }
+        Recovery recovery = new Recovery(key, maxStaleness.toNanos());
+        V value = policy.call(loader, recovery);
+        if (!recovery.recovered) {
+            store(key, value);
+        }
+        return value;
+    }
+
+    public V getOrThrow(K key, Callable<V> loader, RetryPolicy policy, Duration maxStaleness, Duration refreshAfter)
+            throws Exception {
+        long now = System.nanoTime();
+        Entry<V> cached = serveWhileRevalidating(key, loader, policy, maxStaleness, refreshAfter, now);
+        if (cached != null) {
+            return cached.value;
+        }
+        V value;
+        try {
+            value = policy.callOrThrow(loader);
+        } catch (Exception e) {
+            Entry<V> stale = entryNotOlderThan(key, maxStaleness.toNanos(), System.nanoTime());
+            if (stale == null) {
+                throw e;
+            }
+            return stale.value;
+        }
+        store(key, value);
+        return value;
+    }
+
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private Entry<V> serveWhileRevalidating(K key, Callable<V> loader, RetryPolicy policy, Duration maxStaleness,
+                                            Duration refreshAfter, long now) {
+        if (refreshAfter == null) {
+            return null;
+        }
+        Entry<V> entry = entryNotOlderThan(key, maxStaleness.toNanos(), now);
+        if (entry != null && now - entry.storedAtNanos > refreshAfter.toNanos() && entry.refreshing.compareAndSet(false, true)) {
+            policy.future(loader).whenComplete((value, throwable) -> {
+                if (value != null) {
+                    store(key, value);
+                } else {
+                    entry.refreshing.set(false);
+                }
+            });
+        }
+        return entry;
+    }
+
+    private Entry<V> entryNotOlderThan(K key, long maxStalenessNanos, long now) {
+        Entry<V> entry = entries.get(key);
+        return entry != null && now - entry.storedAtNanos <= maxStalenessNanos ? entry : null;
+    }
+
+    private void store(K key, V value) {
+        if (value == null) {
+            return;
+        }
+        entries.put(key, new Entry<>(value, System.nanoTime()));
+        if (entries.size() > maximumSize) {
+            evict();
+        }
+    }
+
+    private void evict() {
+        List<Map.Entry<K, Entry<V>>> snapshot = new ArrayList<>(entries.entrySet());
+        if (snapshot.size() <= maximumSize) {
+            return;
+        }
+        snapshot.sort((first, second) -> Long.compare(first.getValue().storedAtNanos - second.getValue().storedAtNanos, 0));
+        int excess = snapshot.size() - (maximumSize - maximumSize / 4);
+        for (int i = 0; i < excess; i++) {
+            entries.remove(snapshot.get(i).getKey(), snapshot.get(i).getValue());
+        }
+    }
+
+    private final class Recovery implements Function<Exception, V> {
+
+        private final K key;
+        private final long maxStalenessNanos;
+        private boolean recovered;
+
+        private Recovery(K key, long maxStalenessNanos) {
+            this.key = key;
+            this.maxStalenessNanos = maxStalenessNanos;
+        }
+
+        @Override
+        public V apply(Exception failure) {
+            Entry<V> stale = entryNotOlderThan(key, maxStalenessNanos, System.nanoTime());
+            if (stale == null) {
+                return null;
+            }
+            recovered = true;
+            return stale.value;
+        }
+    }
+
+    private static final class Entry<V> {
+
+        private final V value;
+        private final long storedAtNanos;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        private Entry(V value, long storedAtNanos) {
+            this.value = value;
+            this.storedAtNanos = storedAtNanos;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package it.podlodowski.javatry.util.cache;
+
+import it.podlodowski.javatry.util.precondition.Preconditions;
+import it.podlodowski.javatry.util.retry.RetryPolicy;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class TryCache<K, V> {
+
+    private final RetryPolicy policy;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final int maximumSize;
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    private TryCache(Builder builder) {
+        this.policy = builder.policy;
+        this.ttlNanos = builder.ttl.toNanos();
+        this.negativeTtlNanos = builder.negativeTtl.toNanos();
+        this.maximumSize = builder.maximumSize;
+    }
+
+    public static <K, V> TryCache<K, V> coalescing(RetryPolicy policy) {
+        return TryCache.builder().policy(policy).build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public V get(K key, Callable<V> loader) throws Exception {
+        Entry<V> entry = entryFor(key);
+        if (entry.claim()) {
+            try {
+                complete(key, entry, policy.callOrThrow(loader), null);
+            } catch (Throwable t) {
+                complete(key, entry, null, t);
+            }
+        }
+        try {
+            return entry.future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    public CompletableFuture<V> future(K key, Callable<V> loader) {
+        Entry<V> entry = entryFor(key);
+        if (entry.claim()) {
+            try {
+                policy.futureOrThrow(loader).whenComplete((value, throwable) -> complete(key, entry, value, throwable));
+            } catch (Throwable t) {
+                complete(key, entry, null, t);
+            }
+        }
+        return entry.future;
+    }
+
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private Entry<V> entryFor(K key) {
+        while (true) {
+            long now = System.nanoTime();
+            Entry<V> existing = entries.get(key);
+            if (existing != null && !existing.isExpired(now)) {
+                return existing;
+            }
+            Entry<V> created = new Entry<>();
+            if (existing == null ? entries.putIfAbsent(key, created) == null : entries.replace(key, existing, created)) {
+                if (maximumSize > 0 && entries.size() > maximumSize) {
+                    evict(now);
+                }
+                return created;
+            }
+        }
+    }
+
+    private void complete(K key, Entry<V> entry, V value, Throwable failure) {
+        long entryTtlNanos = failure == null ? ttlNanos : negativeTtlNanos;
+        entry.expiresAtNanos = System.nanoTime() + entryTtlNanos;
+        if (entryTtlNanos == 0) {
+            entries.remove(key, entry);
+        }
+        if (failure == null) {
+            entry.future.complete(value);
+        } else {
+            entry.future.completeExceptionally(failure);
+        }
+    }
+
+    private void evict(long now) {
+        int target = maximumSize - maximumSize / 4;
+        for (Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator(); it.hasNext(); ) {
+            if (it.next().getValue().isExpired(now)) {
+                it.remove();
+            }
+        }
+        for (Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator(); it.hasNext() && entries.size() > target; ) {
+            if (it.next().getValue().future.isDone()) {
+                it.remove();
+            }
+        }
+    }
+
+    private static final class Entry<V> {
+
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private volatile long expiresAtNanos;
+
+        private boolean claim() {
+            return !claimed.get() && claimed.compareAndSet(false, true);
+        }
+
+        private boolean isExpired(long now) {
+            return future.isDone() && expiresAtNanos - now <= 0;
+        }
+    }
+
+    public static class Builder {
+
+        private RetryPolicy policy = RetryPolicy.builder().build();
+        private Duration ttl = Duration.ZERO;
+        private Duration negativeTtl = Duration.ZERO;
+        private int maximumSize = 0;
+
+        private Builder() {
+        }
+
+        public Builder policy(RetryPolicy policy) {
+            this.policy = policy;
+            return this;
+        }
+
+        public Builder ttl(Duration ttl) {
+            Preconditions.checkArgument(!ttl.isNegative(), "ttl must not be negative");
+            this.ttl = ttl;
+            return this;
+        }
+
+        public Builder negativeTtl(Duration negativeTtl) {
+            Preconditions.checkArgument(!negativeTtl.isNegative(), "negative ttl must not be negative");
+            this.negativeTtl = negativeTtl;
+            return this;
+        }
+
+        public Builder maximumSize(int maximumSize) {
+            Preconditions.checkArgument(maximumSize > 0, "maximum size must be positive");
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        public <K, V> TryCache<K, V> build() {
+            return new TryCache<>(this);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package it.podlodowski.javatry.util.circuitbreaker;
+
+import it.podlodowski.javatry.util.precondition.Preconditions;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private static final int WINDOW_BUCKETS = 10;
+
+    private final double failureRateThreshold;
+    private final int minimumNumberOfCalls;
+    private final long openStateNanos;
+    private final int permittedCallsInHalfOpenState;
+    private final SlidingWindow window;
+
+    private final AtomicReference<Transition> transition = new AtomicReference<>(new Transition(State.CLOSED, 0));
+    private final AtomicInteger halfOpenPermits = new AtomicInteger();
+    private final AtomicInteger halfOpenSuccesses = new AtomicInteger();
+
+    private CircuitBreaker(Builder builder) {
+        this.failureRateThreshold = builder.failureRateThreshold;
+        this.minimumNumberOfCalls = builder.minimumNumberOfCalls;
+        this.openStateNanos = builder.waitInOpenState.toNanos();
+        this.permittedCallsInHalfOpenState = builder.permittedCallsInHalfOpenState;
+        this.window = new SlidingWindow(builder.slidingWindow.toNanos(), WINDOW_BUCKETS);
+    }
+
+    public static CircuitBreaker ofDefaults() {
+        return builder().build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public State getState() {
+        return transition.get().state;
+    }
+
+    public boolean tryAcquirePermission() {
+        Transition current = transition.get();
+        switch (current.state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.nanoTime() - current.sinceNanos < openStateNanos) {
+                    return false;
+                }
+                transitionToHalfOpen(current);
+                return tryAcquirePermission();
+            default:
+                return tryAcquireHalfOpenPermit();
+        }
+    }
+
+    public void releasePermission() {
+        if (transition.get().state != State.HALF_OPEN) {
+            return;
+        }
+        while (true) {
+            int permits = halfOpenPermits.get();
+            if (permits >= permittedCallsInHalfOpenState || halfOpenPermits.compareAndSet(permits, permits + 1)) {
+                return;
+            }
+        }
+    }
+
+    public void onSuccess() {
+        Transition current = transition.get();
+        if (current.state == State.HALF_OPEN) {
+            if (halfOpenSuccesses.incrementAndGet() >= permittedCallsInHalfOpenState
+                    && transition.compareAndSet(current, new Transition(State.CLOSED, System.nanoTime()))) {
+                window.reset();
+            }
+        } else if (current.state == State.CLOSED) {
+            window.record(false, System.nanoTime());
+        }
+    }
+
+    public void onFailure() {
+        Transition current = transition.get();
+        long now = System.nanoTime();
+        if (current.state == State.HALF_OPEN) {
+            transition.compareAndSet(current, new Transition(State.OPEN, now));
+        } else if (current.state == State.CLOSED) {
+            window.record(true, now);
+            long calls = window.calls(now);
+            if (calls >= minimumNumberOfCalls && window.failures(now) >= failureRateThreshold * calls) {
+                transition.compareAndSet(current, new Transition(State.OPEN, now));
+            }
+        }
+    }
+
+    public void reset() {
+        window.reset();
+        transition.set(new Transition(State.CLOSED, System.nanoTime()));
+    }
+
+    private void transitionToHalfOpen(Transition open) {
+        if (transition.compareAndSet(open, new Transition(State.HALF_OPEN, System.nanoTime()))) {
+            halfOpenSuccesses.set(0);
+            halfOpenPermits.set(permittedCallsInHalfOpenState);
+        }
+    }
+
+    private boolean tryAcquireHalfOpenPermit() {
+        while (true) {
+            int permits = halfOpenPermits.get();
+            if (permits <= 0) {
+                return false;
+            }
+            if (halfOpenPermits.compareAndSet(permits, permits - 1)) {
+                return true;
+            }
+        }
+    }
+
+    private static final class Transition {
+
+        private final State state;
+        private final long sinceNanos;
+
+        private Transition(State state, long sinceNanos) {
+            this.state = state;
+            this.sinceNanos = sinceNanos;
+        }
+    }
+
+    public static class Builder {
+
+        private double failureRateThreshold = 0.5;
+        private int minimumNumberOfCalls = 20;
+        private Duration slidingWindow = Duration.ofSeconds(10);
+        private Duration waitInOpenState = Duration.ofSeconds(30);
+        private int permittedCallsInHalfOpenState = 1;
+
+        private Builder() {
+        }
+
+        public Builder failureRateThreshold(double failureRateThreshold) {
+            Preconditions.checkArgument(failureRateThreshold > 0 && failureRateThreshold <= 1,
+                    "failure rate threshold must be within (0, 1] range");
+            this.failureRateThreshold = failureRateThreshold;
+            return this;
+        }
+
+        public Builder minimumNumberOfCalls(int minimumNumberOfCalls) {
+            Preconditions.checkArgument(minimumNumberOfCalls > 0, "minimum number of calls must be positive");
+            this.minimumNumberOfCalls = minimumNumberOfCalls;
+            return this;
+        }
+
+        public Builder slidingWindow(Duration slidingWindow) {
+            Preconditions.checkArgument(!slidingWindow.isNegative() && !slidingWindow.isZero(),
+                    "sliding window must be positive");
+            this.slidingWindow = slidingWindow;
+            return this;
+        }
+
+        public Builder waitInOpenState(Duration waitInOpenState) {
+            Preconditions.checkArgument(!waitInOpenState.isNegative(), "wait in open state must not be negative");
+            this.waitInOpenState = waitInOpenState;
+            return this;
+        }
+
+        public Builder permittedCallsInHalfOpenState(int permittedCallsInHalfOpenState) {
+            Preconditions.checkArgument(permittedCallsInHalfOpenState > 0,
+                    "permitted calls in half-open state must be positive");
+            this.permittedCallsInHalfOpenState = permittedCallsInHalfOpenState;
+            return this;
+        }
+
+        public CircuitBreaker build() {
+            return new CircuitBreaker(this);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package it.podlodowski.javatry.util.circuitbreaker;
+
+public class CircuitBreakerOpenException extends RuntimeException {
+
+    public CircuitBreakerOpenException() {
+        super("Circuit breaker is open", null, false, false);
+    }
+}
@@ -0,0 +1,69 @@
+package it.podlodowski.javatry.util.circuitbreaker;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+class SlidingWindow {
+
+    private final int bucketCount;
+    private final long bucketNanos;
+    private final AtomicLongArray epochs;
+    private final AtomicLongArray calls;
+    private final AtomicLongArray failures;
+
+    SlidingWindow(long windowNanos, int bucketCount) {
+        this.bucketCount = bucketCount;
+        this.bucketNanos = Math.max(1, windowNanos / bucketCount);
+        this.epochs = new AtomicLongArray(bucketCount);
+        this.calls = new AtomicLongArray(bucketCount);
+        this.failures = new AtomicLongArray(bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            epochs.set(i, Long.MIN_VALUE);
+        }
+    }
+
+    void record(boolean failure, long nowNanos) {
+        long epoch = nowNanos / bucketNanos;
+        int index = index(epoch);
+        long current = epochs.get(index);
+        if (current != epoch && epochs.compareAndSet(index, current, epoch)) {
+            calls.set(index, 0);
+            failures.set(index, 0);
+        }
+        calls.incrementAndGet(index);
+        if (failure) {
+            failures.incrementAndGet(index);
+        }
+    }
+
+    long calls(long nowNanos) {
+        return sum(calls, nowNanos);
+    }
+
+    long failures(long nowNanos) {
+        return sum(failures, nowNanos);
+    }
+
+    void reset() {
+        for (int i = 0; i < bucketCount; i++) {
+            epochs.set(i, Long.MIN_VALUE);
+            calls.set(i, 0);
+            failures.set(i, 0);
+        }
+    }
+
+    private long sum(AtomicLongArray counters, long nowNanos) {
+        long epoch = nowNanos / bucketNanos;
+        long sum = 0;
+        for (int i = 0; i < bucketCount; i++) {
+            long bucketEpoch = epochs.get(i);
+            if (bucketEpoch <= epoch && bucketEpoch > epoch - bucketCount) {
+                sum += counters.get(i);
+            }
+        }
+        return sum;
+    }
+
+    private int index(long epoch) {
+        return (int) Math.floorMod(epoch, (long) bucketCount);
+    }
+}
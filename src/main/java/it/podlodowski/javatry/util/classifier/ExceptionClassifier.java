@@ -0,0 +1,52 @@
+package it.podlodowski.javatry.util.classifier;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+public final class ExceptionClassifier {
+
+    private static final ExceptionClassifier RETRY_ALL =
+            new ExceptionClassifier(new Class<?>[0], new Class<?>[0], null);
+
+    private final Class<?>[] retryOn;
+    private final Class<?>[] abortOn;
+    private final Predicate<Exception> retryIf;
+    private final ClassValue<Boolean> retryableType = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return !matches(abortOn, type) && (retryOn.length == 0 || matches(retryOn, type));
+        }
+    };
+
+    private ExceptionClassifier(Class<?>[] retryOn, Class<?>[] abortOn, Predicate<Exception> retryIf) {
+        this.retryOn = retryOn;
+        this.abortOn = abortOn;
+        this.retryIf = retryIf;
+    }
+
+    public static ExceptionClassifier retryAll() {
+        return RETRY_ALL;
+    }
+
+    public static ExceptionClassifier of(List<Class<? extends Exception>> retryOn,
+                                         List<Class<? extends Exception>> abortOn,
+                                         Predicate<Exception> retryIf) {
+        if (retryOn.isEmpty() && abortOn.isEmpty() && retryIf == null) {
+            return RETRY_ALL;
+        }
+        return new ExceptionClassifier(retryOn.toArray(new Class<?>[0]), abortOn.toArray(new Class<?>[0]), retryIf);
+    }
+
+    public boolean isRetryable(Exception exception) {
+        return retryableType.get(exception.getClass()) && (retryIf == null || retryIf.test(exception));
+    }
+
+    private static boolean matches(Class<?>[] types, Class<?> type) {
+        for (Class<?> candidate : types) {
+            if (candidate.isAssignableFrom(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,5 +1,8 @@
 package it.podlodowski.javatry.util.consumer;
 
+import it.podlodowski.javatry.util.precondition.Preconditions;
+
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
@@ -12,4 +15,17 @@ public class Consumers {
     public static <T> Consumer<T> doNothing() {
         return t -> {};
     }
+
+    public static <T> Consumer<T> sampled(Consumer<T> consumer, int everyNth) {
+        Preconditions.checkArgument(everyNth > 0, "sampling rate must be positive");
+        if (everyNth == 1) {
+            return consumer;
+        }
+        AtomicLong counter = new AtomicLong();
+        return t -> {
+            if (counter.getAndIncrement() % everyNth == 0) {
+                consumer.accept(t);
+            }
+        };
+    }
 }
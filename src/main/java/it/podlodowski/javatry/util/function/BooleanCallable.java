@@ -0,0 +1,12 @@
+package it.podlodowski.javatry.util.function;
+
+@FunctionalInterface
+public interface BooleanCallable extends LongCallable {
+
+    boolean callAsBoolean() throws Exception;
+
+    @Override
+    default long callAsLong() throws Exception {
+        return callAsBoolean() ? 1 : 0;
+    }
+}
@@ -0,0 +1,12 @@
+package it.podlodowski.javatry.util.function;
+
+@FunctionalInterface
+public interface DoubleCallable extends LongCallable {
+
+    double callAsDouble() throws Exception;
+
+    @Override
+    default long callAsLong() throws Exception {
+        return Double.doubleToRawLongBits(callAsDouble());
+    }
+}
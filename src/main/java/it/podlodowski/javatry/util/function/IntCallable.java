@@ -0,0 +1,12 @@
+package it.podlodowski.javatry.util.function;
+
+@FunctionalInterface
+public interface IntCallable extends LongCallable {
+
+    int callAsInt() throws Exception;
+
+    @Override
+    default long callAsLong() throws Exception {
+        return callAsInt();
+    }
+}
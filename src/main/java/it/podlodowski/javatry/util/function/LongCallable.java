@@ -0,0 +1,7 @@
+package it.podlodowski.javatry.util.function;
+
+@FunctionalInterface
+public interface LongCallable {
+
+    long callAsLong() throws Exception;
+}
@@ -0,0 +1,180 @@
+package it.podlodowski.javatry.util.journal;
+
+import it.podlodowski.javatry.util.precondition.Preconditions;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+final class JournalFile implements Closeable {
+
+    private static final byte SUBMIT = 1;
+    private static final byte ATTEMPT = 2;
+    private static final byte DONE = 3;
+    private static final int HEADER_BYTES = 8;
+
+    private final Path path;
+    private final int initialCapacity;
+    private final CRC32 crc = new CRC32();
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private boolean dirty;
+
+    JournalFile(Path path, int initialCapacity) throws IOException {
+        this.path = path;
+        this.initialCapacity = initialCapacity;
+        open(path);
+    }
+
+    synchronized Map<Long, JournaledTask> replay() {
+        Map<Long, JournaledTask> tasks = new LinkedHashMap<>();
+        buffer.position(0);
+        while (buffer.remaining() >= HEADER_BYTES) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining() || checksum != checksum(start + HEADER_BYTES, length)) {
+                buffer.position(start);
+                break;
+            }
+            ByteBuffer record = buffer.slice();
+            record.limit(length);
+            buffer.position(start + HEADER_BYTES + length);
+            apply(record, tasks);
+        }
+        return tasks;
+    }
+
+    synchronized void appendSubmit(JournaledTask task) throws IOException {
+        byte[] type = task.type.getBytes(StandardCharsets.UTF_8);
+        Preconditions.checkArgument(type.length <= Short.MAX_VALUE, "type must not exceed 32767 bytes");
+        ByteBuffer record = ByteBuffer.allocate(1 + 8 + 4 + 8 + 2 + type.length + 4 + task.payload.length);
+        record.put(SUBMIT).putLong(task.id).putInt(task.attempt).putLong(task.nextFireAtMillis)
+                .putShort((short) type.length).put(type).putInt(task.payload.length).put(task.payload);
+        append(record);
+    }
+
+    synchronized void appendAttempt(long id, int attempt, long nextFireAtMillis) throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(1 + 8 + 4 + 8);
+        record.put(ATTEMPT).putLong(id).putInt(attempt).putLong(nextFireAtMillis);
+        append(record);
+    }
+
+    synchronized void appendDone(long id) throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(1 + 8);
+        record.put(DONE).putLong(id);
+        append(record);
+    }
+
+    synchronized int size() {
+        return buffer.position();
+    }
+
+    synchronized void sync() {
+        if (dirty) {
+            buffer.force();
+            dirty = false;
+        }
+    }
+
+    synchronized void rewrite(Collection<JournaledTask> tasks) throws IOException {
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        Files.deleteIfExists(compacted);
+        FileChannel previousChannel = channel;
+        open(compacted);
+        for (JournaledTask task : tasks) {
+            appendSubmit(task);
+        }
+        buffer.force();
+        dirty = false;
+        Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory();
+        previousChannel.close();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        sync();
+        channel.close();
+    }
+
+    private void open(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(channel.size(), initialCapacity));
+    }
+
+    private void syncDirectory() {
+        Path directory = path.toAbsolutePath().getParent();
+        if (directory == null) {
+            return;
+        }
+        try (FileChannel directoryChannel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            directoryChannel.force(true);
+        } catch (IOException ignored) {
+        }
+    }
+
+    private void append(ByteBuffer record) throws IOException {
+        record.flip();
+        int length = record.remaining();
+        if (buffer.remaining() < HEADER_BYTES + length) {
+            grow(buffer.position() + HEADER_BYTES + length);
+        }
+        int start = buffer.position();
+        buffer.putInt(length).putInt(0).put(record);
+        buffer.putInt(start + 4, checksum(start + HEADER_BYTES, length));
+        dirty = true;
+    }
+
+    private void grow(int required) throws IOException {
+        int position = buffer.position();
+        long capacity = Math.max((long) buffer.capacity() * 2, required);
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IOException("Journal " + path + " exceeds maximum mapped size");
+        }
+        buffer.force();
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        buffer.position(position);
+    }
+
+    private int checksum(int offset, int length) {
+        ByteBuffer region = buffer.duplicate();
+        region.limit(offset + length).position(offset);
+        crc.reset();
+        crc.update(region);
+        return (int) crc.getValue();
+    }
+
+    private static void apply(ByteBuffer record, Map<Long, JournaledTask> tasks) {
+        byte kind = record.get();
+        long id = record.getLong();
+        if (kind == SUBMIT) {
+            int attempt = record.getInt();
+            long nextFireAtMillis = record.getLong();
+            byte[] type = new byte[record.getShort()];
+            record.get(type);
+            byte[] payload = new byte[record.getInt()];
+            record.get(payload);
+            tasks.put(id, new JournaledTask(id, new String(type, StandardCharsets.UTF_8), payload, attempt, nextFireAtMillis));
+        } else if (kind == ATTEMPT) {
+            JournaledTask task = tasks.get(id);
+            if (task != null) {
+                task.attempt = record.getInt();
+                task.nextFireAtMillis = record.getLong();
+            }
+        } else if (kind == DONE) {
+            tasks.remove(id);
+        }
+    }
+}
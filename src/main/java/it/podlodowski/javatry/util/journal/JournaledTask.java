@@ -0,0 +1,22 @@
+package it.podlodowski.javatry.util.journal;
+
+import java.util.concurrent.Future;
+
+final class JournaledTask {
+
+    final long id;
+    final String type;
+    final byte[] payload;
+    volatile int attempt;
+    volatile long nextFireAtMillis;
+    long delayNanos;
+    volatile Future<?> scheduled;
+
+    JournaledTask(long id, String type, byte[] payload, int attempt, long nextFireAtMillis) {
+        this.id = id;
+        this.type = type;
+        this.payload = payload;
+        this.attempt = attempt;
+        this.nextFireAtMillis = nextFireAtMillis;
+    }
+}
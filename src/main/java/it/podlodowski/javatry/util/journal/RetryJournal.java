@@ -0,0 +1,259 @@
+package it.podlodowski.javatry.util.journal;
+
+import it.podlodowski.javatry.util.backoff.BackoffStrategy;
+import it.podlodowski.javatry.util.backoff.Backoffs;
+import it.podlodowski.javatry.util.consumer.Consumers;
+import it.podlodowski.javatry.util.precondition.Preconditions;
+import it.podlodowski.javatry.util.retry.Retry;
+import it.podlodowski.javatry.util.scheduler.DelayScheduler;
+import it.podlodowski.javatry.util.scheduler.Schedulers;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+public class RetryJournal implements Closeable {
+
+    private final JournalFile file;
+    private final int maxTries;
+    private final BackoffStrategy backoff;
+    private final Consumer<Exception> exceptionConsumer;
+    private final long syncIntervalNanos;
+    private final int compactionThreshold;
+    private final Executor executor;
+    private final DelayScheduler scheduler;
+
+    private final Map<String, TaskHandler> handlers = new ConcurrentHashMap<>();
+    private final Map<Long, JournaledTask> tasks = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+    private volatile boolean started;
+    private volatile boolean closed;
+    private volatile Future<?> syncTimer;
+    private int nextCompaction;
+
+    private RetryJournal(Builder builder) throws IOException {
+        this.file = new JournalFile(builder.path, builder.initialCapacity);
+        this.maxTries = builder.maxTries;
+        this.backoff = builder.backoff;
+        this.exceptionConsumer = builder.exceptionConsumer;
+        this.syncIntervalNanos = builder.syncInterval.toNanos();
+        this.compactionThreshold = builder.compactionThreshold;
+        this.executor = builder.executor;
+        this.scheduler = builder.scheduler;
+        this.nextCompaction = builder.compactionThreshold;
+    }
+
+    public static Builder builder(Path path) {
+        return new Builder(path);
+    }
+
+    public RetryJournal register(String type, TaskHandler handler) {
+        handlers.put(type, handler);
+        if (started) {
+            tasks.values().stream().filter(task -> task.type.equals(type) && task.scheduled == null)
+                    .forEach(this::schedule);
+        }
+        return this;
+    }
+
+    public synchronized RetryJournal start() {
+        Preconditions.checkArgument(!started, "journal is already started");
+        Map<Long, JournaledTask> replayed = file.replay();
+        long maxId = 0;
+        for (JournaledTask task : replayed.values()) {
+            tasks.put(task.id, task);
+            maxId = Math.max(maxId, task.id);
+        }
+        ids.set(maxId);
+        started = true;
+        tasks.values().forEach(this::schedule);
+        scheduleSync();
+        return this;
+    }
+
+    public long submit(String type, byte[] payload) throws IOException {
+        Preconditions.checkArgument(started && !closed, "journal must be started and open");
+        JournaledTask task = new JournaledTask(ids.incrementAndGet(), type, payload.clone(), 0, System.currentTimeMillis());
+        tasks.put(task.id, task);
+        try {
+            file.appendSubmit(task);
+        } catch (IOException | RuntimeException e) {
+            tasks.remove(task.id);
+            throw e;
+        }
+        schedule(task);
+        return task.id;
+    }
+
+    public int pending() {
+        return tasks.size();
+    }
+
+    public void sync() {
+        file.sync();
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        Future<?> timer = syncTimer;
+        if (timer != null) {
+            timer.cancel(false);
+        }
+        for (JournaledTask task : tasks.values()) {
+            Future<?> scheduled = task.scheduled;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+        }
+        file.close();
+    }
+
+    private void schedule(JournaledTask task) {
+        if (closed || !handlers.containsKey(task.type)) {
+            return;
+        }
+        long delayMillis = Math.max(0, task.nextFireAtMillis - System.currentTimeMillis());
+        task.scheduled = scheduler.schedule(() -> executor.execute(() -> run(task)), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void run(JournaledTask task) {
+        if (closed) {
+            return;
+        }
+        try {
+            handlers.get(task.type).handle(task.payload);
+        } catch (Throwable t) {
+            retry(task, t);
+            return;
+        }
+        finish(task);
+    }
+
+    private void retry(JournaledTask task, Throwable failure) {
+        int attempt = task.attempt + 1;
+        if (Retry.INFINITE != maxTries && attempt >= maxTries) {
+            finish(task);
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+            exceptionConsumer.accept(failure instanceof Exception ? (Exception) failure : new RuntimeException(failure));
+            return;
+        }
+        task.delayNanos = backoff.delayNanos(attempt, task.delayNanos);
+        task.attempt = attempt;
+        task.nextFireAtMillis = System.currentTimeMillis() + TimeUnit.NANOSECONDS.toMillis(task.delayNanos);
+        try {
+            file.appendAttempt(task.id, task.attempt, task.nextFireAtMillis);
+        } catch (IOException journalException) {
+            exceptionConsumer.accept(journalException);
+        }
+        schedule(task);
+    }
+
+    private void finish(JournaledTask task) {
+        tasks.remove(task.id);
+        try {
+            file.appendDone(task.id);
+            compactIfNeeded();
+        } catch (IOException e) {
+            exceptionConsumer.accept(e);
+        }
+    }
+
+    private void compactIfNeeded() throws IOException {
+        synchronized (file) {
+            if (file.size() < nextCompaction) {
+                return;
+            }
+            file.rewrite(tasks.values());
+            nextCompaction = Math.max(compactionThreshold, file.size() * 2);
+        }
+    }
+
+    private void scheduleSync() {
+        if (!closed) {
+            syncTimer = scheduler.schedule(() -> {
+                try {
+                    file.sync();
+                } catch (RuntimeException e) {
+                    exceptionConsumer.accept(e);
+                }
+                scheduleSync();
+            }, syncIntervalNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public static class Builder {
+
+        private final Path path;
+        private int maxTries = Retry.INFINITE;
+        private BackoffStrategy backoff = Backoffs.capped(Backoffs.exponential(Duration.ofSeconds(1)), Duration.ofMinutes(10));
+        private Consumer<Exception> exceptionConsumer = Consumers.doNothing();
+        private Duration syncInterval = Duration.ofMillis(100);
+        private int initialCapacity = 1 << 20;
+        private int compactionThreshold = 16 << 20;
+        private Executor executor = Schedulers.defaultExecutor();
+        private DelayScheduler scheduler = Schedulers.defaultScheduler();
+
+        private Builder(Path path) {
+            this.path = path;
+        }
+
+        public Builder times(int maxTries) {
+            Preconditions.checkArgument(maxTries > 0, "times must be positive");
+            this.maxTries = maxTries;
+            return this;
+        }
+
+        public Builder withBackoff(BackoffStrategy backoff) {
+            this.backoff = backoff;
+            return this;
+        }
+
+        public Builder onException(Consumer<Exception> exceptionConsumer) {
+            this.exceptionConsumer = exceptionConsumer;
+            return this;
+        }
+
+        public Builder syncInterval(Duration syncInterval) {
+            Preconditions.checkArgument(!syncInterval.isNegative() && !syncInterval.isZero(), "sync interval must be positive");
+            this.syncInterval = syncInterval;
+            return this;
+        }
+
+        public Builder initialCapacity(int initialCapacity) {
+            Preconditions.checkArgument(initialCapacity > 0, "initial capacity must be positive");
+            this.initialCapacity = initialCapacity;
+            return this;
+        }
+
+        public Builder compactionThreshold(int compactionThreshold) {
+            Preconditions.checkArgument(compactionThreshold > 0, "compaction threshold must be positive");
+            this.compactionThreshold = compactionThreshold;
+            return this;
+        }
+
+        public Builder withExecutor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public Builder withScheduler(DelayScheduler scheduler) {
+            this.scheduler = scheduler;
+            return this;
+        }
+
+        public RetryJournal build() throws IOException {
+            return new RetryJournal(this);
+        }
+    }
+}
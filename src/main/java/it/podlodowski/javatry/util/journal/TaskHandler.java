@@ -0,0 +1,7 @@
+package it.podlodowski.javatry.util.journal;
+
+@FunctionalInterface
+public interface TaskHandler {
+
+    void handle(byte[] payload) throws Exception;
+}
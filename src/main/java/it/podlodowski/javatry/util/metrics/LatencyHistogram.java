@@ -0,0 +1,76 @@
+package it.podlodowski.javatry.util.metrics;
+
+import it.podlodowski.javatry.util.precondition.Preconditions;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int HALF_SUB_BUCKETS = 1 << (SUB_BUCKET_BITS - 1);
+    private static final int BUCKETS = HALF_SUB_BUCKETS * (Long.SIZE - SUB_BUCKET_BITS + 2);
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long value) {
+        long nonNegative = Math.max(0, value);
+        counts.incrementAndGet(index(nonNegative));
+        count.increment();
+        sum.add(nonNegative);
+        if (nonNegative > max.get()) {
+            max.accumulateAndGet(nonNegative, Math::max);
+        }
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public long max() {
+        return max.get();
+    }
+
+    public double mean() {
+        long total = count.sum();
+        return total == 0 ? 0 : (double) sum.sum() / total;
+    }
+
+    public long valueAtPercentile(double percentile) {
+        Preconditions.checkArgument(percentile >= 0 && percentile <= 100, "percentile must be within [0, 100] range");
+        long total = count();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestValue(i), max());
+            }
+        }
+        return max();
+    }
+
+    static int index(long value) {
+        if (value < 2 * HALF_SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = Long.SIZE - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * HALF_SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    static long highestValue(int index) {
+        if (index < 2 * HALF_SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / HALF_SUB_BUCKETS - 1;
+        long subBucket = index - shift * HALF_SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
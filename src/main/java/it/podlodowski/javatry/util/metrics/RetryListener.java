@@ -0,0 +1,48 @@
+package it.podlodowski.javatry.util.metrics;
+
+public interface RetryListener {
+
+    default void onAttemptStart(String name, int attempt) {
+    }
+
+    /**
+     * @param throwable failure of the attempt, {@code null} when it succeeded
+     */
+    default void onAttemptEnd(String name, int attempt, long elapsedNanos, Throwable throwable) {
+    }
+
+    default void onDelay(String name, int retry, long delayNanos) {
+    }
+
+    default void onGiveUp(String name, int attempts, Throwable throwable) {
+    }
+
+    default RetryListener andThen(RetryListener other) {
+        RetryListener first = this;
+        return new RetryListener() {
+            @Override
+            public void onAttemptStart(String name, int attempt) {
+                first.onAttemptStart(name, attempt);
+                other.onAttemptStart(name, attempt);
+            }
+
+            @Override
+            public void onAttemptEnd(String name, int attempt, long elapsedNanos, Throwable throwable) {
+                first.onAttemptEnd(name, attempt, elapsedNanos, throwable);
+                other.onAttemptEnd(name, attempt, elapsedNanos, throwable);
+            }
+
+            @Override
+            public void onDelay(String name, int retry, long delayNanos) {
+                first.onDelay(name, retry, delayNanos);
+                other.onDelay(name, retry, delayNanos);
+            }
+
+            @Override
+            public void onGiveUp(String name, int attempts, Throwable throwable) {
+                first.onGiveUp(name, attempts, throwable);
+                other.onGiveUp(name, attempts, throwable);
+            }
+        };
+    }
+}
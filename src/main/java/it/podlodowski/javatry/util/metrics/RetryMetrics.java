@@ -0,0 +1,39 @@
+package it.podlodowski.javatry.util.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class RetryMetrics implements RetryListener {
+
+    static final String UNNAMED = "unnamed";
+
+    private final ConcurrentHashMap<String, RetryStats> stats = new ConcurrentHashMap<>();
+
+    @Override
+    public void onAttemptStart(String name, int attempt) {
+        if (attempt > 1) {
+            stats(name).recordRetry();
+        }
+    }
+
+    @Override
+    public void onAttemptEnd(String name, int attempt, long elapsedNanos, Throwable throwable) {
+        stats(name).recordAttempt(elapsedNanos, throwable != null);
+    }
+
+    @Override
+    public void onDelay(String name, int retry, long delayNanos) {
+        stats(name).recordDelay(delayNanos);
+    }
+
+    public RetryStats stats(String name) {
+        String key = name == null ? UNNAMED : name;
+        RetryStats existing = stats.get(key);
+        return existing != null ? existing : stats.computeIfAbsent(key, ignored -> new RetryStats());
+    }
+
+    public Map<String, RetryStats> all() {
+        return Collections.unmodifiableMap(stats);
+    }
+}
@@ -0,0 +1,51 @@
+package it.podlodowski.javatry.util.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class RetryStats {
+
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder delayNanos = new LongAdder();
+    private final LatencyHistogram attemptLatency = new LatencyHistogram();
+
+    void recordAttempt(long elapsedNanos, boolean failed) {
+        attempts.increment();
+        (failed ? failures : successes).increment();
+        attemptLatency.record(elapsedNanos);
+    }
+
+    void recordRetry() {
+        retries.increment();
+    }
+
+    void recordDelay(long nanos) {
+        delayNanos.add(nanos);
+    }
+
+    public long attempts() {
+        return attempts.sum();
+    }
+
+    public long successes() {
+        return successes.sum();
+    }
+
+    public long failures() {
+        return failures.sum();
+    }
+
+    public long retries() {
+        return retries.sum();
+    }
+
+    public long delayNanos() {
+        return delayNanos.sum();
+    }
+
+    public LatencyHistogram attemptLatency() {
+        return attemptLatency;
+    }
+}
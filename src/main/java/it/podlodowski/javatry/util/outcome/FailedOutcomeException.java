@@ -0,0 +1,8 @@
+package it.podlodowski.javatry.util.outcome;
+
+public class FailedOutcomeException extends RuntimeException {
+
+    public FailedOutcomeException(String reason) {
+        super(reason, null, false, false);
+    }
+}
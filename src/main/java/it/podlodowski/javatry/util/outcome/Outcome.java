@@ -0,0 +1,49 @@
+package it.podlodowski.javatry.util.outcome;
+
+import java.util.concurrent.Callable;
+
+public final class Outcome<T> {
+
+    private final T value;
+    private final Exception failure;
+
+    private Outcome(T value, Exception failure) {
+        this.value = value;
+        this.failure = failure;
+    }
+
+    public static <T> Outcome<T> success(T value) {
+        return new Outcome<>(value, null);
+    }
+
+    public static <T> Outcome<T> failure(String reason) {
+        return new Outcome<>(null, new FailedOutcomeException(reason));
+    }
+
+    public static <T> Outcome<T> failure(Exception failure) {
+        return new Outcome<>(null, failure);
+    }
+
+    public static <T> Callable<T> unwrapping(Callable<Outcome<T>> callable) {
+        return () -> callable.call().getOrThrow();
+    }
+
+    public boolean isSuccess() {
+        return failure == null;
+    }
+
+    public T getValue() {
+        return value;
+    }
+
+    public Exception getFailure() {
+        return failure;
+    }
+
+    public T getOrThrow() throws Exception {
+        if (failure != null) {
+            throw failure;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,8 @@
+package it.podlodowski.javatry.util.ratelimiter;
+
+public class RateLimitExceededException extends RuntimeException {
+
+    public RateLimitExceededException() {
+        super("Rate limit exceeded", null, false, false);
+    }
+}
@@ -0,0 +1,114 @@
+package it.podlodowski.javatry.util.ratelimiter;
+
+import it.podlodowski.javatry.util.precondition.Preconditions;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class RateLimiter {
+
+    public static final long NOT_PERMITTED = -1;
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final long retryToleranceNanos;
+    private final long maxWaitNanos;
+    private final AtomicLong theoreticalArrival;
+
+    private RateLimiter(Builder builder) {
+        this.intervalNanos = Math.max(1, builder.period.toNanos() / builder.permits);
+        this.toleranceNanos = intervalNanos * (builder.burst - 1);
+        this.retryToleranceNanos = intervalNanos * (Math.min(builder.retryBurst, builder.burst) - 1);
+        this.maxWaitNanos = builder.maxWait.toNanos();
+        this.theoreticalArrival = new AtomicLong(System.nanoTime());
+    }
+
+    public static RateLimiter of(int permits, Duration period) {
+        return builder().limitForPeriod(permits, period).build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public boolean tryAcquirePermission() {
+        return tryAcquirePermission(false);
+    }
+
+    public boolean tryAcquirePermission(boolean retry) {
+        return reservePermission(retry, 0) == 0;
+    }
+
+    public long reservePermission(boolean retry) {
+        return reservePermission(retry, maxWaitNanos);
+    }
+
+    public void acquirePermission(boolean retry) throws InterruptedException {
+        long waitNanos = reservePermission(retry);
+        if (waitNanos == NOT_PERMITTED) {
+            throw new RateLimitExceededException();
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    private long reservePermission(boolean retry, long maxWaitNanos) {
+        long tolerance = retry ? retryToleranceNanos : toleranceNanos;
+        long now = System.nanoTime();
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long base = arrival - now > 0 ? arrival : now;
+            long waitNanos = Math.max(0, base - tolerance - now);
+            if (waitNanos > maxWaitNanos) {
+                return NOT_PERMITTED;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, base + intervalNanos)) {
+                return waitNanos;
+            }
+        }
+    }
+
+    public static class Builder {
+
+        private int permits = 1;
+        private Duration period = Duration.ofSeconds(1);
+        private int burst = 1;
+        private int retryBurst = Integer.MAX_VALUE;
+        private Duration maxWait = Duration.ofNanos(Long.MAX_VALUE);
+
+        private Builder() {
+        }
+
+        public Builder limitForPeriod(int permits, Duration period) {
+            Preconditions.checkArgument(permits > 0, "permits must be positive");
+            Preconditions.checkArgument(!period.isNegative() && !period.isZero(), "period must be positive");
+            this.permits = permits;
+            this.period = period;
+            return this;
+        }
+
+        public Builder burst(int burst) {
+            Preconditions.checkArgument(burst > 0, "burst must be positive");
+            this.burst = burst;
+            return this;
+        }
+
+        public Builder retryBurst(int retryBurst) {
+            Preconditions.checkArgument(retryBurst > 0, "retry burst must be positive");
+            this.retryBurst = retryBurst;
+            return this;
+        }
+
+        public Builder maxWait(Duration maxWait) {
+            Preconditions.checkArgument(!maxWait.isNegative(), "max wait must not be negative");
+            this.maxWait = maxWait;
+            return this;
+        }
+
+        public RateLimiter build() {
+            return new RateLimiter(this);
+        }
+    }
+}
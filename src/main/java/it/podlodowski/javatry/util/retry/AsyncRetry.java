@@ -0,0 +1,472 @@
+package it.podlodowski.javatry.util.retry;
+
+import it.podlodowski.javatry.util.adaptive.AdaptiveAttempts;
+import it.podlodowski.javatry.util.backoff.BackoffStrategy;
+import it.podlodowski.javatry.util.budget.RetryBudget;
+import it.podlodowski.javatry.util.bulkhead.Bulkhead;
+import it.podlodowski.javatry.util.bulkhead.BulkheadFullException;
+import it.podlodowski.javatry.util.circuitbreaker.CircuitBreaker;
+import it.podlodowski.javatry.util.circuitbreaker.CircuitBreakerOpenException;
+import it.podlodowski.javatry.util.classifier.ExceptionClassifier;
+import it.podlodowski.javatry.util.metrics.RetryListener;
+import it.podlodowski.javatry.util.ratelimiter.RateLimitExceededException;
+import it.podlodowski.javatry.util.ratelimiter.RateLimiter;
+import it.podlodowski.javatry.util.scheduler.DelayScheduler;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+import static it.podlodowski.javatry.util.retry.Retry.INFINITE;
+
+public class AsyncRetry {
+
+    AsyncRetry() throws InstantiationException {
+        throw new InstantiationException("Instances of this class are forbidden.");
+    }
+
+    public static <T> CompletableFuture<T> runWithRetry(Callable<T> callable, RetryPolicy policy) {
+        return start(callable, policy, policy.exceptionConsumer);
+    }
+
+    public static <T> CompletableFuture<T> runWithRetryOrThrow(Callable<T> callable, RetryPolicy policy) {
+        return start(callable, policy, null);
+    }
+
+    private static <T> CompletableFuture<T> start(Callable<T> callable, RetryPolicy policy,
+                                                  Consumer<Exception> exceptionConsumer) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        if (policy.maxTries == 0) {
+            future.complete(null);
+            return future;
+        }
+        if (policy.retryBudget != null) {
+            policy.retryBudget.onFirstAttempt();
+        }
+        Attempt<T> attempt = new Attempt<>(callable, policy, exceptionConsumer, future);
+        future.whenComplete((result, throwable) -> attempt.stop());
+        attempt.submit();
+        return future;
+    }
+
+    private static class Attempt<T> implements Runnable {
+
+        private final Callable<T> callable;
+        private final int maxTries;
+        private final BackoffStrategy backoff;
+        private final CircuitBreaker circuitBreaker;
+        private final RetryBudget retryBudget;
+        private final Bulkhead bulkhead;
+        private final RateLimiter rateLimiter;
+        private final AdaptiveAttempts adaptive;
+        private final long startedAtNanos;
+        private final Runnable onRetry;
+        private final Consumer<Exception> exceptionConsumer;
+        private final String name;
+        private final RetryListener listener;
+        private final ExceptionClassifier classifier;
+        private final Predicate<Object> retryIfResult;
+        private final boolean stackless;
+        private final long attemptTimeoutNanos;
+        private final long deadlineAtNanos;
+        private final LongSupplier hedgeDelayNanos;
+        private final int maxHedges;
+        private final Executor executor;
+        private final DelayScheduler scheduler;
+        private final CompletableFuture<T> future;
+        private final Runnable submit = this::submit;
+
+        private int count = 0;
+        private int attempt = 0;
+        private long delayNanos = 0;
+        private Exception lastFailure;
+        private volatile Future<?> pending;
+        private volatile Round round;
+
+        private Attempt(Callable<T> callable, RetryPolicy policy, Consumer<Exception> exceptionConsumer,
+                        CompletableFuture<T> future) {
+            this.callable = callable;
+            this.maxTries = policy.maxTries;
+            this.backoff = policy.backoff;
+            this.circuitBreaker = policy.circuitBreaker;
+            this.retryBudget = policy.retryBudget;
+            this.bulkhead = policy.bulkhead;
+            this.rateLimiter = policy.rateLimiter;
+            this.adaptive = policy.adaptiveAttempts;
+            this.startedAtNanos = adaptive != null ? System.nanoTime() : 0;
+            this.onRetry = policy.onRetry;
+            this.exceptionConsumer = exceptionConsumer;
+            this.name = policy.name;
+            this.listener = policy.listener;
+            this.classifier = policy.classifier;
+            this.retryIfResult = policy.retryIfResult;
+            this.stackless = policy.stackless;
+            this.attemptTimeoutNanos = policy.attemptTimeoutNanos;
+            this.deadlineAtNanos = policy.deadlineNanos > 0 ? System.nanoTime() + policy.deadlineNanos : 0;
+            this.hedgeDelayNanos = policy.hedgeDelayNanos;
+            this.maxHedges = policy.hedgeDelayNanos != null ? policy.maxHedges : 0;
+            this.executor = policy.executor;
+            this.scheduler = policy.scheduler;
+            this.future = future;
+        }
+
+        @Override
+        public void run() {
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                if (attempt > 0 && onRetry != null) {
+                    onRetry.run();
+                }
+            } catch (Exception e) {
+                giveUp(e);
+                return;
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+                return;
+            }
+            if (rateLimiter != null) {
+                long waitNanos = rateLimiter.reservePermission(attempt > 0);
+                if (waitNanos == RateLimiter.NOT_PERMITTED) {
+                    giveUp(new RateLimitExceededException());
+                    return;
+                }
+                if (waitNanos > 0) {
+                    try {
+                        pending = scheduler.schedule(() -> dispatch(this::admit), waitNanos, TimeUnit.NANOSECONDS);
+                    } catch (RuntimeException e) {
+                        future.completeExceptionally(e);
+                    }
+                    return;
+                }
+            }
+            admit();
+        }
+
+        private void admit() {
+            if (future.isDone()) {
+                return;
+            }
+            if (bulkhead != null && !bulkhead.tryAcquirePermission()) {
+                if (!bulkhead.offer(this::resume)) {
+                    giveUp(new BulkheadFullException());
+                }
+                return;
+            }
+            launch();
+        }
+
+        private void resume() {
+            if (future.isDone()) {
+                bulkhead.release();
+                return;
+            }
+            try {
+                executor.execute(this::launch);
+            } catch (RuntimeException e) {
+                bulkhead.release();
+                future.completeExceptionally(e);
+            }
+        }
+
+        private void launch() {
+            if (future.isDone()) {
+                if (bulkhead != null) {
+                    bulkhead.release();
+                }
+                return;
+            }
+            if (lastFailure != null && deadlineAtNanos != 0 && deadlineAtNanos - System.nanoTime() <= 0) {
+                if (bulkhead != null) {
+                    bulkhead.release();
+                }
+                stopRetrying(lastFailure);
+                return;
+            }
+            if (circuitBreaker != null && !circuitBreaker.tryAcquirePermission()) {
+                if (bulkhead != null) {
+                    bulkhead.release();
+                }
+                giveUp(new CircuitBreakerOpenException());
+                return;
+            }
+            if (attempt < Integer.MAX_VALUE) {
+                attempt++;
+            }
+            Round current = new Round(attempt);
+            round = current;
+            current.start();
+        }
+
+        private void release() {
+            if (bulkhead != null) {
+                bulkhead.release();
+            }
+            if (circuitBreaker != null) {
+                circuitBreaker.releasePermission();
+            }
+        }
+
+        private void onFailure(Exception e) {
+            if (future.isDone() || !(e instanceof RetryableResultException) && !classifier.isRetryable(e)
+                    || INFINITE != maxTries && ++count == maxTries) {
+                stopRetrying(e);
+                return;
+            }
+            try {
+                delayNanos = backoff.delayNanos(attempt, delayNanos);
+                long waitNanos = adaptive != null
+                        ? adaptive.delayNanos(attempt, System.nanoTime() - startedAtNanos, delayNanos) : delayNanos;
+                if (waitNanos == AdaptiveAttempts.NO_MORE_ATTEMPTS
+                        || deadlineAtNanos != 0 && deadlineAtNanos - System.nanoTime() <= waitNanos
+                        || retryBudget != null && !retryBudget.tryAcquireRetry()) {
+                    stopRetrying(e);
+                    return;
+                }
+                lastFailure = e;
+                if (waitNanos > 0) {
+                    if (listener != null) {
+                        listener.onDelay(name, attempt, waitNanos);
+                    }
+                    pending = scheduler.schedule(submit, waitNanos, TimeUnit.NANOSECONDS);
+                } else {
+                    submit();
+                }
+            } catch (RuntimeException scheduleException) {
+                future.completeExceptionally(scheduleException);
+            }
+        }
+
+        private void stopRetrying(Exception e) {
+            if (listener != null && !future.isDone()) {
+                listener.onGiveUp(name, attempt, e);
+            }
+            giveUp(e);
+        }
+
+        private void giveUp(Exception e) {
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                future.complete(Retry.giveUp(e));
+            } catch (Exception failure) {
+                consume(failure);
+            }
+        }
+
+        private void consume(Exception e) {
+            if (exceptionConsumer == null) {
+                future.completeExceptionally(e);
+                return;
+            }
+            try {
+                exceptionConsumer.accept(e);
+                future.complete(null);
+            } catch (Exception consumerException) {
+                future.completeExceptionally(consumerException);
+            }
+        }
+
+        private void submit() {
+            dispatch(this);
+        }
+
+        private void dispatch(Runnable task) {
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                executor.execute(task);
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }
+
+        private void stop() {
+            Future<?> scheduled = pending;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+            Round current = round;
+            if (current != null && future.isCancelled()) {
+                current.cancel();
+            }
+        }
+
+        private final class Round {
+
+            private final int number;
+            private final AtomicBoolean settled = new AtomicBoolean();
+            private final AtomicInteger outstanding = new AtomicInteger();
+            private final AtomicInteger launched = new AtomicInteger();
+            private final AtomicReferenceArray<AttemptGuard> guards;
+            private volatile Future<?> hedgeTimer;
+
+            private Round(int number) {
+                this.number = number;
+                this.guards = new AtomicReferenceArray<>(1 + maxHedges);
+            }
+
+            private void start() {
+                outstanding.incrementAndGet();
+                launched.incrementAndGet();
+                scheduleHedge();
+                execute(0);
+            }
+
+            private void scheduleHedge() {
+                if (launched.get() > maxHedges || settled.get()) {
+                    return;
+                }
+                long hedgeDelay = hedgeDelayNanos.getAsLong();
+                if (hedgeDelay > 0) {
+                    try {
+                        hedgeTimer = scheduler.schedule(this::hedge, hedgeDelay, TimeUnit.NANOSECONDS);
+                    } catch (RuntimeException ignored) {
+                    }
+                }
+            }
+
+            private void hedge() {
+                if (settled.get() || future.isDone()
+                        || rateLimiter != null && !rateLimiter.tryAcquirePermission(true)
+                        || bulkhead != null && !bulkhead.tryAcquirePermission()) {
+                    return;
+                }
+                if (circuitBreaker != null && !circuitBreaker.tryAcquirePermission()) {
+                    if (bulkhead != null) {
+                        bulkhead.release();
+                    }
+                    return;
+                }
+                outstanding.incrementAndGet();
+                if (settled.get()) {
+                    outstanding.decrementAndGet();
+                    release();
+                    return;
+                }
+                int index = launched.getAndIncrement();
+                scheduleHedge();
+                try {
+                    executor.execute(() -> execute(index));
+                } catch (RuntimeException e) {
+                    release();
+                    fail(e);
+                }
+            }
+
+            private void execute(int index) {
+                long startNanos = 0;
+                AttemptGuard guard = null;
+                boolean recorded = false;
+                try {
+                    if (listener != null) {
+                        listener.onAttemptStart(name, number);
+                    }
+                    if (listener != null || bulkhead != null || adaptive != null) {
+                        startNanos = System.nanoTime();
+                    }
+                    guard = AttemptGuard.start(scheduler,
+                            AttemptGuard.timeoutNanos(attemptTimeoutNanos, deadlineAtNanos));
+                    guards.set(index, guard);
+                    T result = null;
+                    Exception failure = null;
+                    try {
+                        if (settled.get() || future.isCancelled()) {
+                            guard.interrupt();
+                        }
+                        result = callable.call();
+                        if (guard.finish()) {
+                            throw guard.timeoutException(null, stackless);
+                        }
+                        if (retryIfResult != null && retryIfResult.test(result)) {
+                            throw new RetryableResultException(result);
+                        }
+                    } catch (Exception e) {
+                        failure = guard.finish() && !(e instanceof TimeoutException)
+                                ? guard.timeoutException(e, stackless) : e;
+                    }
+                    long elapsedNanos = System.nanoTime() - startNanos;
+                    recorded = true;
+                    record(elapsedNanos, failure);
+                    if (listener != null) {
+                        listener.onAttemptEnd(name, number, elapsedNanos, failure);
+                    }
+                    if (failure != null) {
+                        fail(failure);
+                    } else if (settled.compareAndSet(false, true)) {
+                        cancel();
+                        future.complete(result);
+                    }
+                } catch (Throwable t) {
+                    settled.set(true);
+                    cancel();
+                    future.completeExceptionally(t);
+                } finally {
+                    if (!recorded) {
+                        if (guard != null) {
+                            guard.finish();
+                        }
+                        release();
+                    }
+                }
+            }
+
+            private void record(long elapsedNanos, Exception failure) {
+                if (failure != null && settled.get()) {
+                    release();
+                    return;
+                }
+                boolean healthy = failure == null || failure instanceof RetryableResultException;
+                if (adaptive != null) {
+                    adaptive.onAttempt(elapsedNanos, failure == null);
+                }
+                if (bulkhead != null) {
+                    bulkhead.onComplete(elapsedNanos, !Retry.isDropped(failure));
+                }
+                if (circuitBreaker != null) {
+                    if (healthy) {
+                        circuitBreaker.onSuccess();
+                    } else {
+                        circuitBreaker.onFailure();
+                    }
+                }
+            }
+
+            private void fail(Exception failure) {
+                if (outstanding.decrementAndGet() == 0 && settled.compareAndSet(false, true)) {
+                    cancelHedgeTimer();
+                    onFailure(failure);
+                }
+            }
+
+            private void cancel() {
+                cancelHedgeTimer();
+                for (int i = 0; i < guards.length(); i++) {
+                    AttemptGuard guard = guards.get(i);
+                    if (guard != null) {
+                        guard.interrupt();
+                    }
+                }
+            }
+
+            private void cancelHedgeTimer() {
+                Future<?> timer = hedgeTimer;
+                if (timer != null) {
+                    timer.cancel(false);
+                }
+            }
+        }
+    }
+}
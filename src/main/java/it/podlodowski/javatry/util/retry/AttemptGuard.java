@@ -0,0 +1,106 @@
+package it.podlodowski.javatry.util.retry;
+
+import it.podlodowski.javatry.util.scheduler.DelayScheduler;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+final class AttemptGuard implements Runnable {
+
+    private static final int RUNNING = 0;
+    private static final int INTERRUPTING = 1;
+    private static final int INTERRUPTED = 2;
+    private static final int FINISHED = 3;
+
+    private final Thread thread;
+    private final AtomicInteger state = new AtomicInteger(RUNNING);
+    private final long timeoutNanos;
+    private Future<?> timer;
+    private boolean finished;
+    private boolean interrupted;
+
+    private AttemptGuard(Thread thread, long timeoutNanos) {
+        this.thread = thread;
+        this.timeoutNanos = timeoutNanos;
+    }
+
+    static AttemptGuard start(DelayScheduler scheduler, long timeoutNanos) {
+        AttemptGuard guard = new AttemptGuard(Thread.currentThread(), timeoutNanos);
+        if (timeoutNanos > 0) {
+            guard.timer = scheduler.schedule(guard, timeoutNanos, TimeUnit.NANOSECONDS);
+        }
+        return guard;
+    }
+
+    static long timeoutNanos(long attemptTimeoutNanos, long deadlineAtNanos) {
+        if (deadlineAtNanos == 0) {
+            return attemptTimeoutNanos;
+        }
+        long remaining = Math.max(1, deadlineAtNanos - System.nanoTime());
+        return attemptTimeoutNanos > 0 ? Math.min(attemptTimeoutNanos, remaining) : remaining;
+    }
+
+    @Override
+    public void run() {
+        interrupt();
+    }
+
+    boolean interrupt() {
+        if (!state.compareAndSet(RUNNING, INTERRUPTING)) {
+            return false;
+        }
+        thread.interrupt();
+        state.set(INTERRUPTED);
+        return true;
+    }
+
+    /**
+     * Must be called by the guarded thread once the attempt returns. Clears the interrupt raised by the guard, so
+     * the thread can be reused.
+     *
+     * @return {@code true} if the attempt was interrupted by this guard
+     */
+    boolean finish() {
+        if (!finished) {
+            finished = true;
+            if (timer != null) {
+                timer.cancel(false);
+            }
+            if (!state.compareAndSet(RUNNING, FINISHED)) {
+                while (state.get() == INTERRUPTING) {
+                    Thread.yield();
+                }
+                Thread.interrupted();
+                interrupted = true;
+            }
+        }
+        return interrupted;
+    }
+
+    Exception timeoutException(Exception cause, boolean stackless) {
+        return timeoutException(timeoutNanos, cause, stackless);
+    }
+
+    static TimeoutException timeoutException(long timeoutNanos, Exception cause, boolean stackless) {
+        String message = "Attempt timed out after " + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + " ms";
+        TimeoutException exception = stackless ? new StacklessTimeoutException(message) : new TimeoutException(message);
+        if (cause != null) {
+            exception.initCause(cause);
+        }
+        return exception;
+    }
+
+    private static final class StacklessTimeoutException extends TimeoutException {
+
+        private StacklessTimeoutException(String message) {
+            super(message);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package it.podlodowski.javatry.util.retry;
+
+public final class BatchResult<T> {
+
+    private final Object[] values;
+    private final Exception[] failures;
+    private final int failureCount;
+
+    BatchResult(Object[] values, Exception[] failures) {
+        this.values = values;
+        this.failures = failures;
+        int count = 0;
+        for (Exception failure : failures) {
+            if (failure != null) {
+                count++;
+            }
+        }
+        this.failureCount = count;
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public boolean isSuccess(int index) {
+        return failures[index] == null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        return (T) values[index];
+    }
+
+    public Exception getException(int index) {
+        return failures[index];
+    }
+
+    public int successCount() {
+        return values.length - failureCount;
+    }
+
+    public int failureCount() {
+        return failureCount;
+    }
+
+    public boolean allSucceeded() {
+        return failureCount == 0;
+    }
+}
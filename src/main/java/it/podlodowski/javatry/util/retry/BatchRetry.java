@@ -0,0 +1,212 @@
+package it.podlodowski.javatry.util.retry;
+
+import it.podlodowski.javatry.util.backoff.BackoffStrategy;
+import it.podlodowski.javatry.util.classifier.ExceptionClassifier;
+import it.podlodowski.javatry.util.metrics.RetryListener;
+import it.podlodowski.javatry.util.precondition.Preconditions;
+import it.podlodowski.javatry.util.scheduler.DelayScheduler;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static it.podlodowski.javatry.util.retry.Retry.INFINITE;
+
+public class BatchRetry {
+
+    BatchRetry() throws InstantiationException {
+        throw new InstantiationException("Instances of this class are forbidden.");
+    }
+
+    public static <T> CompletableFuture<BatchResult<T>> runWithRetry(Collection<? extends Callable<T>> callables,
+                                                                     RetryPolicy policy, int parallelism) {
+        Preconditions.checkArgument(parallelism > 0, "parallelism must be positive");
+        Batch<T> batch = new Batch<>(new ArrayList<>(callables), policy, parallelism);
+        batch.future.whenComplete((result, throwable) -> batch.stop());
+        batch.start();
+        return batch.future;
+    }
+
+    private static class Batch<T> {
+
+        private final List<Callable<T>> callables;
+        private final int maxTries;
+        private final BackoffStrategy backoff;
+        private final Runnable onRetry;
+        private final String name;
+        private final RetryListener listener;
+        private final ExceptionClassifier classifier;
+        private final Predicate<Object> retryIfResult;
+        private final long deadlineAtNanos;
+        private final Executor executor;
+        private final DelayScheduler scheduler;
+        private final int parallelism;
+        private final Object[] values;
+        private final Exception[] failures;
+        private final CompletableFuture<BatchResult<T>> future = new CompletableFuture<>();
+        private final Runnable nextRound = this::runRound;
+
+        private int[] pending;
+        private int[] retries;
+        private final AtomicInteger cursor = new AtomicInteger();
+        private final AtomicInteger retryCount = new AtomicInteger();
+        private final AtomicInteger activeWorkers = new AtomicInteger();
+        private int round = 0;
+        private long delayNanos = 0;
+        private volatile Future<?> delay;
+
+        private Batch(List<Callable<T>> callables, RetryPolicy policy, int parallelism) {
+            this.callables = callables;
+            this.maxTries = policy.maxTries;
+            this.backoff = policy.backoff;
+            this.onRetry = policy.onRetry;
+            this.name = policy.name;
+            this.listener = policy.listener;
+            this.classifier = policy.classifier;
+            this.retryIfResult = policy.retryIfResult;
+            this.deadlineAtNanos = policy.deadlineNanos > 0 ? System.nanoTime() + policy.deadlineNanos : 0;
+            this.executor = policy.executor;
+            this.scheduler = policy.scheduler;
+            this.parallelism = parallelism;
+            this.values = new Object[callables.size()];
+            this.failures = new Exception[callables.size()];
+            this.pending = new int[callables.size()];
+            for (int i = 0; i < pending.length; i++) {
+                pending[i] = i;
+            }
+        }
+
+        private void start() {
+            if (maxTries == 0 || pending.length == 0) {
+                complete();
+            } else {
+                runRound();
+            }
+        }
+
+        private void runRound() {
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                if (round > 0 && onRetry != null) {
+                    onRetry.run();
+                }
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+                return;
+            }
+            round++;
+            retries = new int[pending.length];
+            cursor.set(0);
+            retryCount.set(0);
+            int workers = Math.min(parallelism, pending.length);
+            activeWorkers.set(workers);
+            try {
+                for (int i = 0; i < workers; i++) {
+                    executor.execute(this::work);
+                }
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }
+
+        private void work() {
+            try {
+                int next;
+                while (!future.isDone() && (next = cursor.getAndIncrement()) < pending.length) {
+                    execute(pending[next]);
+                }
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            } finally {
+                if (activeWorkers.decrementAndGet() == 0) {
+                    endRound();
+                }
+            }
+        }
+
+        private void execute(int index) {
+            long startNanos = 0;
+            if (listener != null) {
+                listener.onAttemptStart(name, round);
+                startNanos = System.nanoTime();
+            }
+            try {
+                T result = callables.get(index).call();
+                if (retryIfResult != null && retryIfResult.test(result)) {
+                    throw new RetryableResultException(result);
+                }
+                if (listener != null) {
+                    listener.onAttemptEnd(name, round, System.nanoTime() - startNanos, null);
+                }
+                values[index] = result;
+                failures[index] = null;
+            } catch (Exception failure) {
+                if (listener != null) {
+                    listener.onAttemptEnd(name, round, System.nanoTime() - startNanos, failure);
+                }
+                failures[index] = failure;
+                if (failure instanceof RetryableResultException || classifier.isRetryable(failure)) {
+                    retries[retryCount.getAndIncrement()] = index;
+                }
+            }
+        }
+
+        private void endRound() {
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                int count = retryCount.get();
+                if (count == 0 || INFINITE != maxTries && round >= maxTries) {
+                    complete();
+                    return;
+                }
+                int[] next = new int[count];
+                System.arraycopy(retries, 0, next, 0, count);
+                pending = next;
+                delayNanos = backoff.delayNanos(round, delayNanos);
+                if (deadlineAtNanos != 0 && deadlineAtNanos - System.nanoTime() <= delayNanos) {
+                    complete();
+                } else if (delayNanos > 0) {
+                    if (listener != null) {
+                        listener.onDelay(name, round, delayNanos);
+                    }
+                    delay = scheduler.schedule(nextRound, delayNanos, TimeUnit.NANOSECONDS);
+                } else {
+                    executor.execute(nextRound);
+                }
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        }
+
+        private void complete() {
+            for (int i = 0; i < failures.length; i++) {
+                if (listener != null && failures[i] != null) {
+                    listener.onGiveUp(name, round, failures[i]);
+                }
+                if (failures[i] instanceof RetryableResultException) {
+                    values[i] = ((RetryableResultException) failures[i]).getResult();
+                    failures[i] = null;
+                }
+            }
+            future.complete(new BatchResult<>(values, failures));
+        }
+
+        private void stop() {
+            Future<?> current = delay;
+            if (current != null) {
+                current.cancel(false);
+            }
+        }
+    }
+}
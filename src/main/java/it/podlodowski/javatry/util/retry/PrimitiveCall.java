@@ -0,0 +1,69 @@
+package it.podlodowski.javatry.util.retry;
+
+import it.podlodowski.javatry.util.function.BooleanCallable;
+import it.podlodowski.javatry.util.function.DoubleCallable;
+import it.podlodowski.javatry.util.function.IntCallable;
+import it.podlodowski.javatry.util.function.LongCallable;
+
+import java.util.concurrent.Callable;
+
+final class PrimitiveCall implements Callable<Object> {
+
+    private static final ThreadLocal<PrimitiveCall> CURRENT = ThreadLocal.withInitial(PrimitiveCall::new);
+
+    private LongCallable callable;
+    private boolean boxed;
+    private boolean inUse;
+    private long value;
+
+    private PrimitiveCall() {
+    }
+
+    static PrimitiveCall of(LongCallable callable, boolean boxed) {
+        PrimitiveCall call = CURRENT.get();
+        if (call.inUse) {
+            call = new PrimitiveCall();
+        }
+        call.callable = callable;
+        call.boxed = boxed;
+        call.inUse = true;
+        return call;
+    }
+
+    @Override
+    public Object call() throws Exception {
+        long result = callable.callAsLong();
+        if (!boxed) {
+            value = result;
+            return this;
+        }
+        if (callable instanceof IntCallable) {
+            return (int) result;
+        }
+        if (callable instanceof DoubleCallable) {
+            return Double.longBitsToDouble(result);
+        }
+        if (callable instanceof BooleanCallable) {
+            return result != 0;
+        }
+        return result;
+    }
+
+    long unwrap(Object result) {
+        if (result == this) {
+            return value;
+        }
+        if (result instanceof Double) {
+            return Double.doubleToRawLongBits((Double) result);
+        }
+        if (result instanceof Boolean) {
+            return (Boolean) result ? 1 : 0;
+        }
+        return result == null ? 0 : ((Number) result).longValue();
+    }
+
+    void release() {
+        callable = null;
+        inUse = false;
+    }
+}
@@ -0,0 +1,142 @@
+package it.podlodowski.javatry.util.retry;
+
+import it.podlodowski.javatry.util.backoff.BackoffStrategy;
+import it.podlodowski.javatry.util.classifier.ExceptionClassifier;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static it.podlodowski.javatry.util.retry.Retry.INFINITE;
+
+public final class ResumableIterator<T> implements Iterator<T>, AutoCloseable {
+
+    private final ResumableSource<T> source;
+    private final int maxTries;
+    private final BackoffStrategy backoff;
+    private final Runnable onRetry;
+    private final ExceptionClassifier classifier;
+
+    private Iterator<T> current;
+    private T element;
+    private T lastElement;
+    private long position;
+    private boolean ready;
+    private boolean done;
+    private int count;
+    private long delayNanos;
+
+    ResumableIterator(ResumableSource<T> source, RetryPolicy policy) {
+        this.source = source;
+        this.maxTries = policy.maxTries;
+        this.backoff = policy.backoff;
+        this.onRetry = policy.onRetry;
+        this.classifier = policy.classifier;
+        this.done = maxTries == 0;
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            return advance();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RetryException(e);
+        } catch (Exception e) {
+            throw new RetryException(e);
+        }
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return take();
+    }
+
+    public void forEachRemainingOrThrow(Consumer<? super T> action) throws Exception {
+        while (advance()) {
+            action.accept(take());
+        }
+    }
+
+    public Stream<T> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED), false)
+                .onClose(this::close);
+    }
+
+    public long position() {
+        return position;
+    }
+
+    @Override
+    public void close() {
+        done = true;
+        ready = false;
+        closeCurrent();
+    }
+
+    private T take() {
+        T taken = element;
+        element = null;
+        ready = false;
+        lastElement = taken;
+        position++;
+        return taken;
+    }
+
+    private boolean advance() throws Exception {
+        while (!ready && !done) {
+            try {
+                if (current == null) {
+                    current = source.open(position, lastElement);
+                }
+                if (current.hasNext()) {
+                    element = current.next();
+                    ready = true;
+                    count = 0;
+                    delayNanos = 0;
+                } else {
+                    close();
+                }
+            } catch (Exception e) {
+                closeCurrent();
+                if (!classifier.isRetryable(e) || INFINITE != maxTries && ++count == maxTries) {
+                    done = true;
+                    throw e;
+                }
+                delayNanos = backoff.delayNanos(count, delayNanos);
+                if (delayNanos > 0) {
+                    TimeUnit.NANOSECONDS.sleep(delayNanos);
+                }
+                if (onRetry != null) {
+                    onRetry.run();
+                }
+            }
+        }
+        return ready;
+    }
+
+    private void closeCurrent() {
+        Iterator<T> iterator = current;
+        current = null;
+        if (iterator instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) iterator).close();
+            } catch (Exception ignored) {
+            }
+        }
+    }
+}
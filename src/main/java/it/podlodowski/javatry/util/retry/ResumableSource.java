@@ -0,0 +1,16 @@
+package it.podlodowski.javatry.util.retry;
+
+import java.util.Iterator;
+
+/**
+ * Source of elements that can be reopened after a failure.
+ * <p>
+ * {@code position} is the number of elements already delivered and {@code lastElement} the last of them
+ * ({@code null} on the first open), so the returned iterator should continue right after it.
+ * If the iterator is {@link AutoCloseable} it is closed before the source is reopened.
+ */
+@FunctionalInterface
+public interface ResumableSource<T> {
+
+    Iterator<T> open(long position, T lastElement) throws Exception;
+}
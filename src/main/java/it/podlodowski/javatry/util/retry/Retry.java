@@ -1,10 +1,24 @@
 package it.podlodowski.javatry.util.retry;
 
-import it.podlodowski.javatry.util.precondition.Preconditions;
+import it.podlodowski.javatry.util.adaptive.AdaptiveAttempts;
+import it.podlodowski.javatry.util.backoff.BackoffStrategy;
+import it.podlodowski.javatry.util.budget.RetryBudget;
+import it.podlodowski.javatry.util.bulkhead.Bulkhead;
+import it.podlodowski.javatry.util.bulkhead.BulkheadFullException;
+import it.podlodowski.javatry.util.circuitbreaker.CircuitBreaker;
+import it.podlodowski.javatry.util.circuitbreaker.CircuitBreakerOpenException;
+import it.podlodowski.javatry.util.classifier.ExceptionClassifier;
+import it.podlodowski.javatry.util.function.LongCallable;
+import it.podlodowski.javatry.util.metrics.RetryListener;
+import it.podlodowski.javatry.util.ratelimiter.RateLimitExceededException;
+import it.podlodowski.javatry.util.ratelimiter.RateLimiter;
 
 import java.time.Duration;
 import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 public class Retry {
 
@@ -14,27 +28,173 @@ public class Retry {
         throw new InstantiationException("Instances of this class are forbidden.");
     }
 
-    public static <T> T runWithRetry(Callable<T> callable, int maxTries, Runnable onRetry, Duration delay) throws Exception {
+    public static <T> T runWithRetry(Callable<T> callable, RetryPolicy policy) throws Exception {
+        int maxTries = policy.maxTries;
+        BackoffStrategy backoff = policy.backoff;
+        Runnable onRetry = policy.onRetry;
+        CircuitBreaker circuitBreaker = policy.circuitBreaker;
+        RetryBudget retryBudget = policy.retryBudget;
+        Bulkhead bulkhead = policy.bulkhead;
+        RateLimiter rateLimiter = policy.rateLimiter;
+        AdaptiveAttempts adaptive = policy.adaptiveAttempts;
+        String name = policy.name;
+        RetryListener listener = policy.listener;
+        ExceptionClassifier classifier = policy.classifier;
+        Predicate<Object> retryIfResult = policy.retryIfResult;
+        boolean stackless = policy.stackless;
+        long attemptTimeoutNanos = policy.attemptTimeoutNanos;
+        long deadlineAtNanos = policy.deadlineNanos > 0 ? System.nanoTime() + policy.deadlineNanos : 0;
+        boolean guarded = attemptTimeoutNanos > 0 || deadlineAtNanos != 0;
         int count = 0;
+        int attempt = 0;
+        long delayNanos = 0;
+        long startedAtNanos = adaptive != null ? System.nanoTime() : 0;
+        Exception lastFailure = null;
         if (maxTries == 0) return null;
+        if (retryBudget != null) {
+            retryBudget.onFirstAttempt();
+        }
         while (true) {
+            if (rateLimiter != null) {
+                rateLimiter.acquirePermission(attempt > 0);
+            }
+            if (lastFailure != null && deadlineAtNanos != 0 && deadlineAtNanos - System.nanoTime() <= 0) {
+                if (listener != null) {
+                    listener.onGiveUp(name, attempt, lastFailure);
+                }
+                return giveUp(lastFailure);
+            }
+            if (bulkhead != null && !bulkhead.tryAcquirePermission()) {
+                throw new BulkheadFullException();
+            }
+            if (circuitBreaker != null && !circuitBreaker.tryAcquirePermission()) {
+                if (bulkhead != null) {
+                    bulkhead.release();
+                }
+                throw new CircuitBreakerOpenException();
+            }
+            if (attempt < Integer.MAX_VALUE) {
+                attempt++;
+            }
+            long startNanos = 0;
+            AttemptGuard guard = null;
+            boolean recorded = false;
+            T result = null;
+            Exception failure = null;
             try {
-                return callable.call();
-            } catch (Exception e) {
-                if (INFINITE != maxTries && ++count == maxTries) {
-                    throw e;
-                } else {
-
-                    if (delay != null) {
-                        Thread.sleep(delay.toMillis());
+                if (listener != null) {
+                    listener.onAttemptStart(name, attempt);
+                }
+                if (listener != null || bulkhead != null || adaptive != null) {
+                    startNanos = System.nanoTime();
+                }
+                if (guarded) {
+                    guard = AttemptGuard.start(policy.scheduler,
+                            AttemptGuard.timeoutNanos(attemptTimeoutNanos, deadlineAtNanos));
+                }
+                try {
+                    result = callable.call();
+                    if (guard != null && guard.finish()) {
+                        throw guard.timeoutException(null, stackless);
                     }
-
-                    if (onRetry != null) {
-                        onRetry.run();
+                    if (retryIfResult != null && retryIfResult.test(result)) {
+                        throw new RetryableResultException(result);
+                    }
+                } catch (Exception e) {
+                    failure = guard != null && guard.finish() && !(e instanceof TimeoutException)
+                            ? guard.timeoutException(e, stackless) : e;
+                }
+                long elapsedNanos = System.nanoTime() - startNanos;
+                boolean healthy = failure == null || failure instanceof RetryableResultException;
+                recorded = true;
+                if (adaptive != null) {
+                    adaptive.onAttempt(elapsedNanos, failure == null);
+                }
+                if (bulkhead != null) {
+                    bulkhead.onComplete(elapsedNanos, !isDropped(failure));
+                }
+                if (circuitBreaker != null) {
+                    if (healthy) {
+                        circuitBreaker.onSuccess();
+                    } else {
+                        circuitBreaker.onFailure();
                     }
                 }
+                if (listener != null) {
+                    listener.onAttemptEnd(name, attempt, elapsedNanos, failure);
+                }
+            } finally {
+                if (!recorded) {
+                    if (guard != null) {
+                        guard.finish();
+                    }
+                    if (bulkhead != null) {
+                        bulkhead.release();
+                    }
+                    if (circuitBreaker != null) {
+                        circuitBreaker.releasePermission();
+                    }
+                }
+            }
+            if (failure == null) {
+                return result;
             }
+            if (!(failure instanceof RetryableResultException) && !classifier.isRetryable(failure)
+                    || INFINITE != maxTries && ++count == maxTries) {
+                if (listener != null) {
+                    listener.onGiveUp(name, attempt, failure);
+                }
+                return giveUp(failure);
+            }
+            delayNanos = backoff.delayNanos(attempt, delayNanos);
+            long waitNanos = adaptive != null
+                    ? adaptive.delayNanos(attempt, System.nanoTime() - startedAtNanos, delayNanos) : delayNanos;
+            if (waitNanos == AdaptiveAttempts.NO_MORE_ATTEMPTS
+                    || deadlineAtNanos != 0 && deadlineAtNanos - System.nanoTime() <= waitNanos
+                    || retryBudget != null && !retryBudget.tryAcquireRetry()) {
+                if (listener != null) {
+                    listener.onGiveUp(name, attempt, failure);
+                }
+                return giveUp(failure);
+            }
+            lastFailure = failure;
+            if (waitNanos > 0) {
+                if (listener != null) {
+                    listener.onDelay(name, attempt, waitNanos);
+                }
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+
+            if (onRetry != null) {
+                onRetry.run();
+            }
+        }
+    }
+
+    public static long runLongWithRetry(LongCallable callable, RetryPolicy policy) throws Exception {
+        PrimitiveCall call = PrimitiveCall.of(callable, policy.retryIfResult != null);
+        try {
+            return call.unwrap(runWithRetry(call, policy));
+        } finally {
+            call.release();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static boolean isDropped(Exception failure) {
+        return failure instanceof TimeoutException || failure instanceof BulkheadFullException
+                || failure instanceof CircuitBreakerOpenException || failure instanceof RateLimitExceededException;
+    }
+
+    static <T> T giveUp(Exception failure) throws Exception {
+        if (failure instanceof RetryableResultException) {
+            return (T) ((RetryableResultException) failure).getResult();
         }
+        throw failure;
+    }
+
+    public static <T> T runWithRetry(Callable<T> callable, int maxTries, Runnable onRetry, Duration delay) throws Exception {
+        return runWithRetry(callable, policy(maxTries, delay, onRetry).build());
     }
 
     public static <T> T runWithRetry(Callable<T> callable, int maxTries) throws Exception {
@@ -47,15 +207,11 @@ public class Retry {
 
     public static <T> T runWithRetry(Callable<T> callable, int maxTries, Duration delay, Runnable onRetry,
                                      Consumer<Exception> exceptionConsumer) {
-        return withExceptionConsumed(() -> runWithRetry(callable, maxTries, onRetry, delay), exceptionConsumer);
+        return policy(maxTries, delay, onRetry).onException(exceptionConsumer).build().call(callable);
     }
 
-    private static <T> T withExceptionConsumed(Callable<T> callable, Consumer<Exception> exceptionConsumer) {
-        try {
-            return callable.call();
-        } catch (Exception e) {
-            exceptionConsumer.accept(e);
-            return null;
-        }
+    private static RetryPolicy.Builder policy(int maxTries, Duration delay, Runnable onRetry) {
+        RetryPolicy.Builder builder = RetryPolicy.builder().withDelay(delay).onRetry(onRetry);
+        return INFINITE == maxTries ? builder.endless() : builder.times(maxTries);
     }
 }
@@ -0,0 +1,8 @@
+package it.podlodowski.javatry.util.retry;
+
+public class RetryException extends RuntimeException {
+
+    RetryException(Exception cause) {
+        super(cause.toString(), cause, false, false);
+    }
+}
@@ -0,0 +1,437 @@
+package it.podlodowski.javatry.util.retry;
+
+import it.podlodowski.javatry.util.adaptive.AdaptiveAttempts;
+import it.podlodowski.javatry.util.backoff.BackoffStrategy;
+import it.podlodowski.javatry.util.backoff.Backoffs;
+import it.podlodowski.javatry.util.budget.RetryBudget;
+import it.podlodowski.javatry.util.bulkhead.Bulkhead;
+import it.podlodowski.javatry.util.circuitbreaker.CircuitBreaker;
+import it.podlodowski.javatry.util.classifier.ExceptionClassifier;
+import it.podlodowski.javatry.util.consumer.Consumers;
+import it.podlodowski.javatry.util.function.BooleanCallable;
+import it.podlodowski.javatry.util.function.DoubleCallable;
+import it.podlodowski.javatry.util.function.IntCallable;
+import it.podlodowski.javatry.util.function.LongCallable;
+import it.podlodowski.javatry.util.metrics.LatencyHistogram;
+import it.podlodowski.javatry.util.metrics.RetryListener;
+import it.podlodowski.javatry.util.ratelimiter.RateLimiter;
+import it.podlodowski.javatry.util.precondition.Preconditions;
+import it.podlodowski.javatry.util.scheduler.DelayScheduler;
+import it.podlodowski.javatry.util.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+public final class RetryPolicy {
+
+    final int maxTries;
+    final BackoffStrategy backoff;
+    final Runnable onRetry;
+    final Consumer<Exception> exceptionConsumer;
+    final CircuitBreaker circuitBreaker;
+    final RetryBudget retryBudget;
+    final Bulkhead bulkhead;
+    final RateLimiter rateLimiter;
+    final AdaptiveAttempts adaptiveAttempts;
+    final String name;
+    final RetryListener listener;
+    final long attemptTimeoutNanos;
+    final long deadlineNanos;
+    final LongSupplier hedgeDelayNanos;
+    final int maxHedges;
+    final Executor executor;
+    final DelayScheduler scheduler;
+    final ExceptionClassifier classifier;
+    final Predicate<Object> retryIfResult;
+    final boolean stackless;
+    private final int tries;
+    private final boolean triesSet;
+    private final List<Class<? extends Exception>> retryOn;
+    private final List<Class<? extends Exception>> abortOn;
+    private final Predicate<Exception> retryIf;
+
+    private RetryPolicy(Builder builder) {
+        this.maxTries = builder.adaptiveAttempts != null && !builder.triesSet ? Retry.INFINITE : builder.maxTries;
+        this.tries = builder.maxTries;
+        this.triesSet = builder.triesSet;
+        this.backoff = builder.backoff;
+        this.onRetry = builder.onRetry;
+        this.exceptionConsumer = builder.exceptionConsumer;
+        this.circuitBreaker = builder.circuitBreaker;
+        this.retryBudget = builder.retryBudget;
+        this.bulkhead = builder.bulkhead;
+        this.rateLimiter = builder.rateLimiter;
+        this.adaptiveAttempts = builder.adaptiveAttempts;
+        this.name = builder.name;
+        this.listener = builder.listener;
+        this.attemptTimeoutNanos = builder.attemptTimeoutNanos;
+        this.deadlineNanos = builder.deadlineNanos;
+        this.hedgeDelayNanos = builder.hedgeDelayNanos;
+        this.maxHedges = builder.maxHedges;
+        this.executor = builder.executor;
+        this.scheduler = builder.scheduler;
+        this.retryOn = new ArrayList<>(builder.retryOn);
+        this.abortOn = new ArrayList<>(builder.abortOn);
+        this.retryIf = builder.retryIf;
+        this.retryIfResult = builder.retryIfResult;
+        this.stackless = builder.stackless;
+        this.classifier = ExceptionClassifier.of(retryOn, abortOn, retryIf);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Builder toBuilder() {
+        return new Builder(this);
+    }
+
+    public <T> T call(Callable<T> callable) {
+        try {
+            return Retry.runWithRetry(callable, this);
+        } catch (Exception e) {
+            exceptionConsumer.accept(e);
+            return null;
+        }
+    }
+
+    public <T> T call(Callable<T> callable, Function<? super Exception, ? extends T> fallback) {
+        try {
+            return Retry.runWithRetry(callable, this);
+        } catch (Exception e) {
+            T recovered = fallback.apply(e);
+            if (recovered == null) {
+                exceptionConsumer.accept(e);
+            }
+            return recovered;
+        }
+    }
+
+    public <T> T callOrThrow(Callable<T> callable) throws Exception {
+        return Retry.runWithRetry(callable, this);
+    }
+
+    public OptionalInt callInt(IntCallable callable) {
+        if (maxTries == 0) {
+            return OptionalInt.empty();
+        }
+        try {
+            return OptionalInt.of(callIntOrThrow(callable));
+        } catch (Exception e) {
+            exceptionConsumer.accept(e);
+            return OptionalInt.empty();
+        }
+    }
+
+    public OptionalLong callLong(LongCallable callable) {
+        if (maxTries == 0) {
+            return OptionalLong.empty();
+        }
+        try {
+            return OptionalLong.of(callLongOrThrow(callable));
+        } catch (Exception e) {
+            exceptionConsumer.accept(e);
+            return OptionalLong.empty();
+        }
+    }
+
+    public OptionalDouble callDouble(DoubleCallable callable) {
+        if (maxTries == 0) {
+            return OptionalDouble.empty();
+        }
+        try {
+            return OptionalDouble.of(callDoubleOrThrow(callable));
+        } catch (Exception e) {
+            exceptionConsumer.accept(e);
+            return OptionalDouble.empty();
+        }
+    }
+
+    public Optional<Boolean> callBoolean(BooleanCallable callable) {
+        if (maxTries == 0) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(callBooleanOrThrow(callable));
+        } catch (Exception e) {
+            exceptionConsumer.accept(e);
+            return Optional.empty();
+        }
+    }
+
+    public long callLongOrThrow(LongCallable callable) throws Exception {
+        return Retry.runLongWithRetry(callable, this);
+    }
+
+    public int callIntOrThrow(IntCallable callable) throws Exception {
+        return (int) Retry.runLongWithRetry(callable, this);
+    }
+
+    public double callDoubleOrThrow(DoubleCallable callable) throws Exception {
+        return Double.longBitsToDouble(Retry.runLongWithRetry(callable, this));
+    }
+
+    public boolean callBooleanOrThrow(BooleanCallable callable) throws Exception {
+        return Retry.runLongWithRetry(callable, this) != 0;
+    }
+
+    public <T> CompletableFuture<T> future(Callable<T> callable) {
+        return AsyncRetry.runWithRetry(callable, this);
+    }
+
+    public <T> CompletableFuture<T> futureOrThrow(Callable<T> callable) {
+        return AsyncRetry.runWithRetryOrThrow(callable, this);
+    }
+
+    public <T> CompletableFuture<T> async(Supplier<? extends CompletionStage<T>> supplier) {
+        return StageRetry.runWithRetry(supplier, this);
+    }
+
+    public <T> CompletableFuture<BatchResult<T>> futureAll(Collection<? extends Callable<T>> callables, int parallelism) {
+        return BatchRetry.runWithRetry(callables, this, parallelism);
+    }
+
+    public <T> ResumableIterator<T> iterate(ResumableSource<T> source) {
+        return new ResumableIterator<>(source, this);
+    }
+
+    public static class Builder {
+
+        private int maxTries = 1;
+        private boolean triesSet;
+        private BackoffStrategy backoff = Backoffs.none();
+        private Runnable onRetry;
+        private Consumer<Exception> exceptionConsumer = Consumers.doNothing();
+        private CircuitBreaker circuitBreaker;
+        private RetryBudget retryBudget;
+        private Bulkhead bulkhead;
+        private RateLimiter rateLimiter;
+        private AdaptiveAttempts adaptiveAttempts;
+        private String name;
+        private RetryListener listener;
+        private long attemptTimeoutNanos;
+        private long deadlineNanos;
+        private LongSupplier hedgeDelayNanos;
+        private int maxHedges;
+        private Executor executor = Schedulers.defaultExecutor();
+        private DelayScheduler scheduler = Schedulers.defaultScheduler();
+        private final List<Class<? extends Exception>> retryOn = new ArrayList<>();
+        private final List<Class<? extends Exception>> abortOn = new ArrayList<>();
+        private Predicate<Exception> retryIf;
+        private Predicate<Object> retryIfResult;
+        private boolean stackless;
+        private RetryPolicy built;
+
+        private Builder() {
+        }
+
+        private Builder(RetryPolicy policy) {
+            this.maxTries = policy.tries;
+            this.triesSet = policy.triesSet;
+            this.backoff = policy.backoff;
+            this.onRetry = policy.onRetry;
+            this.exceptionConsumer = policy.exceptionConsumer;
+            this.circuitBreaker = policy.circuitBreaker;
+            this.retryBudget = policy.retryBudget;
+            this.bulkhead = policy.bulkhead;
+            this.rateLimiter = policy.rateLimiter;
+            this.adaptiveAttempts = policy.adaptiveAttempts;
+            this.name = policy.name;
+            this.listener = policy.listener;
+            this.attemptTimeoutNanos = policy.attemptTimeoutNanos;
+            this.deadlineNanos = policy.deadlineNanos;
+            this.hedgeDelayNanos = policy.hedgeDelayNanos;
+            this.maxHedges = policy.maxHedges;
+            this.executor = policy.executor;
+            this.scheduler = policy.scheduler;
+            this.retryOn.addAll(policy.retryOn);
+            this.abortOn.addAll(policy.abortOn);
+            this.retryIf = policy.retryIf;
+            this.retryIfResult = policy.retryIfResult;
+            this.stackless = policy.stackless;
+            this.built = policy;
+        }
+
+        public Builder times(int maxTries) {
+            if (maxTries >= 0) {
+                this.maxTries = maxTries;
+                this.triesSet = true;
+            } else {
+                throw new IllegalArgumentException("times must not be negative number");
+            }
+            return changed();
+        }
+
+        public Builder endless() {
+            this.maxTries = Retry.INFINITE;
+            this.triesSet = true;
+            return changed();
+        }
+
+        public Builder withDelay(Duration delay) {
+            return withBackoff(Backoffs.fixed(delay));
+        }
+
+        public Builder withBackoff(BackoffStrategy backoff) {
+            this.backoff = backoff;
+            return changed();
+        }
+
+        public Builder onRetry(Runnable onRetry) {
+            this.onRetry = onRetry;
+            return changed();
+        }
+
+        public Builder onException(Consumer<Exception> exceptionConsumer) {
+            this.exceptionConsumer = exceptionConsumer;
+            return changed();
+        }
+
+        public Builder withCircuitBreaker(CircuitBreaker circuitBreaker) {
+            this.circuitBreaker = circuitBreaker;
+            return changed();
+        }
+
+        public Builder withRetryBudget(RetryBudget retryBudget) {
+            this.retryBudget = retryBudget;
+            return changed();
+        }
+
+        public Builder withBulkhead(Bulkhead bulkhead) {
+            this.bulkhead = bulkhead;
+            return changed();
+        }
+
+        public Builder withRateLimiter(RateLimiter rateLimiter) {
+            this.rateLimiter = rateLimiter;
+            return changed();
+        }
+
+        public Builder withAdaptiveAttempts(AdaptiveAttempts adaptiveAttempts) {
+            this.adaptiveAttempts = adaptiveAttempts;
+            return changed();
+        }
+
+        @SafeVarargs
+        public final Builder retryOn(Class<? extends Exception>... exceptionTypes) {
+            this.retryOn.addAll(Arrays.asList(exceptionTypes));
+            return changed();
+        }
+
+        @SafeVarargs
+        public final Builder abortOn(Class<? extends Exception>... exceptionTypes) {
+            this.abortOn.addAll(Arrays.asList(exceptionTypes));
+            return changed();
+        }
+
+        public Builder retryIf(Predicate<Exception> retryIf) {
+            this.retryIf = this.retryIf == null ? retryIf : this.retryIf.and(retryIf);
+            return changed();
+        }
+
+        @SuppressWarnings("unchecked")
+        public <T> Builder retryIfResult(Predicate<? super T> retryIfResult) {
+            this.retryIfResult = (Predicate<Object>) retryIfResult;
+            return changed();
+        }
+
+        public Builder stackless() {
+            this.stackless = true;
+            return changed();
+        }
+
+        public Builder attemptTimeout(Duration attemptTimeout) {
+            this.attemptTimeoutNanos = positiveNanos(attemptTimeout, "attempt timeout");
+            return changed();
+        }
+
+        public Builder deadline(Duration deadline) {
+            this.deadlineNanos = positiveNanos(deadline, "deadline");
+            return changed();
+        }
+
+        public Builder hedgeAfter(Duration delay, int maxHedges) {
+            long delayNanos = positiveNanos(delay, "hedge delay");
+            return hedgeAfter(() -> delayNanos, maxHedges);
+        }
+
+        public Builder hedgeAfter(LatencyHistogram attemptLatency, double percentile, int maxHedges) {
+            Preconditions.checkArgument(percentile > 0 && percentile <= 100, "percentile must be within (0, 100] range");
+            return hedgeAfter(() -> attemptLatency.valueAtPercentile(percentile), maxHedges);
+        }
+
+        private Builder hedgeAfter(LongSupplier delayNanos, int maxHedges) {
+            Preconditions.checkArgument(maxHedges >= 0, "max hedges must not be negative");
+            this.hedgeDelayNanos = maxHedges > 0 ? delayNanos : null;
+            this.maxHedges = maxHedges;
+            return changed();
+        }
+
+        public Builder named(String name) {
+            this.name = name;
+            return changed();
+        }
+
+        public Builder withListener(RetryListener listener) {
+            this.listener = listener;
+            return changed();
+        }
+
+        public Builder withExecutor(Executor executor) {
+            this.executor = executor;
+            return changed();
+        }
+
+        public Builder onVirtualThreads() {
+            this.executor = Schedulers.virtualThreadExecutor();
+            this.scheduler = Schedulers.virtualThreadScheduler();
+            return changed();
+        }
+
+        public Builder withScheduler(ScheduledExecutorService scheduler) {
+            return withScheduler(DelayScheduler.of(scheduler));
+        }
+
+        public Builder withScheduler(DelayScheduler scheduler) {
+            this.scheduler = scheduler;
+            return changed();
+        }
+
+        public RetryPolicy build() {
+            if (built == null) {
+                built = new RetryPolicy(this);
+            }
+            return built;
+        }
+
+        private Builder changed() {
+            built = null;
+            return this;
+        }
+
+        private static long positiveNanos(Duration duration, String name) {
+            if (duration == null) {
+                return 0;
+            }
+            Preconditions.checkArgument(!duration.isNegative() && !duration.isZero(), name + " must be positive");
+            return duration.toNanos();
+        }
+    }
+}
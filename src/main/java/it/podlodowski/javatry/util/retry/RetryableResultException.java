@@ -0,0 +1,15 @@
+package it.podlodowski.javatry.util.retry;
+
+public class RetryableResultException extends Exception {
+
+    private final transient Object result;
+
+    RetryableResultException(Object result) {
+        super("Result matched retry condition", null, false, false);
+        this.result = result;
+    }
+
+    public Object getResult() {
+        return result;
+    }
+}
@@ -0,0 +1,397 @@
+package it.podlodowski.javatry.util.retry;
+
+import it.podlodowski.javatry.util.adaptive.AdaptiveAttempts;
+import it.podlodowski.javatry.util.backoff.BackoffStrategy;
+import it.podlodowski.javatry.util.budget.RetryBudget;
+import it.podlodowski.javatry.util.bulkhead.Bulkhead;
+import it.podlodowski.javatry.util.bulkhead.BulkheadFullException;
+import it.podlodowski.javatry.util.circuitbreaker.CircuitBreaker;
+import it.podlodowski.javatry.util.circuitbreaker.CircuitBreakerOpenException;
+import it.podlodowski.javatry.util.classifier.ExceptionClassifier;
+import it.podlodowski.javatry.util.metrics.RetryListener;
+import it.podlodowski.javatry.util.ratelimiter.RateLimitExceededException;
+import it.podlodowski.javatry.util.ratelimiter.RateLimiter;
+import it.podlodowski.javatry.util.scheduler.DelayScheduler;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import static it.podlodowski.javatry.util.retry.Retry.INFINITE;
+
+public class StageRetry {
+
+    StageRetry() throws InstantiationException {
+        throw new InstantiationException("Instances of this class are forbidden.");
+    }
+
+    public static <T> CompletableFuture<T> runWithRetry(Supplier<? extends CompletionStage<T>> supplier,
+                                                        RetryPolicy policy) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        if (policy.maxTries == 0) {
+            future.complete(null);
+            return future;
+        }
+        if (policy.retryBudget != null) {
+            policy.retryBudget.onFirstAttempt();
+        }
+        StageAttempt<T> attempt = new StageAttempt<>(supplier, policy, future);
+        future.whenComplete((result, throwable) -> attempt.stop());
+        attempt.launch();
+        return future;
+    }
+
+    private static class StageAttempt<T> {
+
+        private final Supplier<? extends CompletionStage<T>> supplier;
+        private final int maxTries;
+        private final BackoffStrategy backoff;
+        private final CircuitBreaker circuitBreaker;
+        private final RetryBudget retryBudget;
+        private final Bulkhead bulkhead;
+        private final RateLimiter rateLimiter;
+        private final AdaptiveAttempts adaptive;
+        private final long startedAtNanos;
+        private final Runnable onRetry;
+        private final Consumer<Exception> exceptionConsumer;
+        private final String name;
+        private final RetryListener listener;
+        private final ExceptionClassifier classifier;
+        private final Predicate<Object> retryIfResult;
+        private final boolean stackless;
+        private final long attemptTimeoutNanos;
+        private final long deadlineAtNanos;
+        private final Executor executor;
+        private final DelayScheduler scheduler;
+        private final CompletableFuture<T> future;
+        private final AtomicInteger launches = new AtomicInteger();
+
+        private int count = 0;
+        private int attempt = 0;
+        private long delayNanos = 0;
+        private Exception lastFailure;
+        private volatile Future<?> pending;
+        private volatile CompletionStage<T> stage;
+
+        private StageAttempt(Supplier<? extends CompletionStage<T>> supplier, RetryPolicy policy,
+                             CompletableFuture<T> future) {
+            this.supplier = supplier;
+            this.maxTries = policy.maxTries;
+            this.backoff = policy.backoff;
+            this.circuitBreaker = policy.circuitBreaker;
+            this.retryBudget = policy.retryBudget;
+            this.bulkhead = policy.bulkhead;
+            this.rateLimiter = policy.rateLimiter;
+            this.adaptive = policy.adaptiveAttempts;
+            this.startedAtNanos = adaptive != null ? System.nanoTime() : 0;
+            this.onRetry = policy.onRetry;
+            this.exceptionConsumer = policy.exceptionConsumer;
+            this.name = policy.name;
+            this.listener = policy.listener;
+            this.classifier = policy.classifier;
+            this.retryIfResult = policy.retryIfResult;
+            this.stackless = policy.stackless;
+            this.attemptTimeoutNanos = policy.attemptTimeoutNanos;
+            this.deadlineAtNanos = policy.deadlineNanos > 0 ? System.nanoTime() + policy.deadlineNanos : 0;
+            this.executor = policy.executor;
+            this.scheduler = policy.scheduler;
+            this.future = future;
+        }
+
+        private void launch() {
+            if (launches.getAndIncrement() != 0) {
+                return;
+            }
+            do {
+                safely(this::start);
+            } while (launches.decrementAndGet() != 0);
+        }
+
+        private void safely(Runnable step) {
+            try {
+                step.run();
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        }
+
+        private void start() {
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                if (attempt > 0 && onRetry != null) {
+                    onRetry.run();
+                }
+            } catch (Exception e) {
+                giveUp(e);
+                return;
+            }
+            if (rateLimiter != null) {
+                long waitNanos = rateLimiter.reservePermission(attempt > 0);
+                if (waitNanos == RateLimiter.NOT_PERMITTED) {
+                    giveUp(new RateLimitExceededException());
+                    return;
+                }
+                if (waitNanos > 0) {
+                    try {
+                        pending = scheduler.schedule(() -> dispatch(() -> safely(this::admit)),
+                                waitNanos, TimeUnit.NANOSECONDS);
+                    } catch (RuntimeException e) {
+                        future.completeExceptionally(e);
+                    }
+                    return;
+                }
+            }
+            admit();
+        }
+
+        private void admit() {
+            if (future.isDone()) {
+                return;
+            }
+            if (bulkhead != null && !bulkhead.tryAcquirePermission()) {
+                if (!bulkhead.offer(this::resume)) {
+                    giveUp(new BulkheadFullException());
+                }
+                return;
+            }
+            execute();
+        }
+
+        private void resume() {
+            if (future.isDone()) {
+                bulkhead.release();
+                return;
+            }
+            try {
+                executor.execute(() -> safely(this::execute));
+            } catch (RuntimeException e) {
+                bulkhead.release();
+                future.completeExceptionally(e);
+            }
+        }
+
+        private void execute() {
+            if (lastFailure != null && deadlineAtNanos != 0 && deadlineAtNanos - System.nanoTime() <= 0) {
+                if (bulkhead != null) {
+                    bulkhead.release();
+                }
+                stopRetrying(lastFailure);
+                return;
+            }
+            if (circuitBreaker != null && !circuitBreaker.tryAcquirePermission()) {
+                if (bulkhead != null) {
+                    bulkhead.release();
+                }
+                giveUp(new CircuitBreakerOpenException());
+                return;
+            }
+            if (attempt < Integer.MAX_VALUE) {
+                attempt++;
+            }
+            int number = attempt;
+            long startNanos = System.nanoTime();
+            AtomicBoolean settled = new AtomicBoolean();
+            Future<?> timer = null;
+            boolean started = false;
+            try {
+                if (listener != null) {
+                    listener.onAttemptStart(name, number);
+                }
+                long timeoutNanos = AttemptGuard.timeoutNanos(attemptTimeoutNanos, deadlineAtNanos);
+                started = true;
+                CompletionStage<T> current = supplier.get();
+                stage = current;
+                if (timeoutNanos > 0) {
+                    timer = scheduler.schedule(() -> timeout(current, settled, number, startNanos, timeoutNanos),
+                            timeoutNanos, TimeUnit.NANOSECONDS);
+                }
+                Future<?> attemptTimer = timer;
+                current.whenComplete((result, throwable) -> {
+                    if (attemptTimer != null) {
+                        attemptTimer.cancel(false);
+                    }
+                    if (settled.compareAndSet(false, true)) {
+                        complete(result, throwable, number, startNanos);
+                    }
+                });
+            } catch (Throwable e) {
+                if (timer != null) {
+                    timer.cancel(false);
+                }
+                if (!started) {
+                    release();
+                    future.completeExceptionally(e);
+                    return;
+                }
+                if (settled.compareAndSet(false, true)) {
+                    complete(null, e, number, startNanos);
+                }
+            }
+        }
+
+        private void timeout(CompletionStage<T> current, AtomicBoolean settled, int number, long startNanos,
+                             long timeoutNanos) {
+            if (!settled.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                executor.execute(() -> {
+                    cancel(current);
+                    complete(null, AttemptGuard.timeoutException(timeoutNanos, null, stackless), number, startNanos);
+                });
+            } catch (RuntimeException e) {
+                release();
+                future.completeExceptionally(e);
+            }
+        }
+
+        private void complete(T result, Throwable throwable, int number, long startNanos) {
+            try {
+                settle(result, throwable, number, startNanos);
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        }
+
+        private void settle(T result, Throwable throwable, int number, long startNanos) {
+            Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                    ? throwable.getCause() : throwable;
+            if (cause != null && !(cause instanceof Exception)) {
+                release();
+                future.completeExceptionally(cause);
+                return;
+            }
+            Exception failure = (Exception) cause;
+            try {
+                if (failure == null && retryIfResult != null && retryIfResult.test(result)) {
+                    failure = new RetryableResultException(result);
+                }
+            } catch (Exception e) {
+                failure = e;
+            }
+            long elapsedNanos = System.nanoTime() - startNanos;
+            boolean healthy = failure == null || failure instanceof RetryableResultException;
+            if (adaptive != null) {
+                adaptive.onAttempt(elapsedNanos, failure == null);
+            }
+            if (bulkhead != null) {
+                bulkhead.onComplete(elapsedNanos, !Retry.isDropped(failure));
+            }
+            if (circuitBreaker != null) {
+                if (healthy) {
+                    circuitBreaker.onSuccess();
+                } else {
+                    circuitBreaker.onFailure();
+                }
+            }
+            if (listener != null) {
+                listener.onAttemptEnd(name, number, elapsedNanos, failure);
+            }
+            if (failure == null) {
+                future.complete(result);
+            } else {
+                onFailure(failure);
+            }
+        }
+
+        private void release() {
+            if (bulkhead != null) {
+                bulkhead.release();
+            }
+            if (circuitBreaker != null) {
+                circuitBreaker.releasePermission();
+            }
+        }
+
+        private void onFailure(Exception e) {
+            if (future.isDone() || !(e instanceof RetryableResultException) && !classifier.isRetryable(e)
+                    || INFINITE != maxTries && ++count == maxTries) {
+                stopRetrying(e);
+                return;
+            }
+            try {
+                delayNanos = backoff.delayNanos(attempt, delayNanos);
+                long waitNanos = adaptive != null
+                        ? adaptive.delayNanos(attempt, System.nanoTime() - startedAtNanos, delayNanos) : delayNanos;
+                if (waitNanos == AdaptiveAttempts.NO_MORE_ATTEMPTS
+                        || deadlineAtNanos != 0 && deadlineAtNanos - System.nanoTime() <= waitNanos
+                        || retryBudget != null && !retryBudget.tryAcquireRetry()) {
+                    stopRetrying(e);
+                    return;
+                }
+                lastFailure = e;
+                if (waitNanos > 0) {
+                    if (listener != null) {
+                        listener.onDelay(name, attempt, waitNanos);
+                    }
+                    pending = scheduler.schedule(() -> dispatch(this::launch), waitNanos, TimeUnit.NANOSECONDS);
+                } else {
+                    launch();
+                }
+            } catch (RuntimeException scheduleException) {
+                future.completeExceptionally(scheduleException);
+            }
+        }
+
+        private void dispatch(Runnable task) {
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                executor.execute(task);
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }
+
+        private void stopRetrying(Exception e) {
+            if (listener != null && !future.isDone()) {
+                listener.onGiveUp(name, attempt, e);
+            }
+            giveUp(e);
+        }
+
+        private void giveUp(Exception e) {
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                future.complete(Retry.giveUp(e));
+            } catch (Exception failure) {
+                try {
+                    exceptionConsumer.accept(failure);
+                    future.complete(null);
+                } catch (Exception consumerException) {
+                    future.completeExceptionally(consumerException);
+                }
+            }
+        }
+
+        private void stop() {
+            Future<?> delay = pending;
+            if (delay != null) {
+                delay.cancel(false);
+            }
+            CompletionStage<T> current = stage;
+            if (current != null && future.isCancelled()) {
+                cancel(current);
+            }
+        }
+
+        private static void cancel(CompletionStage<?> stage) {
+            if (stage instanceof Future) {
+                ((Future<?>) stage).cancel(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package it.podlodowski.javatry.util.scheduler;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@FunctionalInterface
+public interface DelayScheduler {
+
+    Future<?> schedule(Runnable task, long delay, TimeUnit unit);
+
+    static DelayScheduler of(ScheduledExecutorService executorService) {
+        return executorService::schedule;
+    }
+}
@@ -0,0 +1,144 @@
+package it.podlodowski.javatry.util.scheduler;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class Schedulers {
+
+    Schedulers() throws InstantiationException {
+        throw new InstantiationException("Instances of this class are forbidden.");
+    }
+
+    public static DelayScheduler defaultScheduler() {
+        return DefaultSchedulerHolder.INSTANCE;
+    }
+
+    public static DelayScheduler timingWheelScheduler() {
+        return TimingWheelSchedulerHolder.INSTANCE;
+    }
+
+    public static Executor defaultExecutor() {
+        return DefaultExecutorHolder.INSTANCE;
+    }
+
+    public static boolean isVirtualThreadSupported() {
+        return VirtualThreadHolder.FACTORY != null;
+    }
+
+    public static Executor virtualThreadExecutor() {
+        ThreadFactory factory = virtualThreadFactory();
+        return runnable -> factory.newThread(runnable).start();
+    }
+
+    public static DelayScheduler virtualThreadScheduler() {
+        return threadPerDelayScheduler(virtualThreadFactory());
+    }
+
+    static DelayScheduler threadPerDelayScheduler(ThreadFactory threadFactory) {
+        return (task, delay, unit) -> {
+            DelayedTask future = new DelayedTask(task, unit.toNanos(delay));
+            threadFactory.newThread(future).start();
+            return future;
+        };
+    }
+
+    private static ThreadFactory virtualThreadFactory() {
+        if (VirtualThreadHolder.FACTORY == null) {
+            throw new UnsupportedOperationException("Virtual threads require JDK 21 or newer");
+        }
+        return VirtualThreadHolder.FACTORY;
+    }
+
+    public static ThreadFactory daemonThreadFactory(String namePrefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class DelayedTask extends FutureTask<Void> {
+
+        private final long delayNanos;
+        private volatile Thread sleeping;
+
+        private DelayedTask(Runnable task, long delayNanos) {
+            super(task, null);
+            this.delayNanos = delayNanos;
+        }
+
+        @Override
+        public void run() {
+            sleeping = Thread.currentThread();
+            try {
+                if (isCancelled()) {
+                    return;
+                }
+                TimeUnit.NANOSECONDS.sleep(delayNanos);
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                sleeping = null;
+            }
+            super.run();
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            Thread thread = sleeping;
+            if (cancelled && thread != null) {
+                thread.interrupt();
+            }
+            return cancelled;
+        }
+    }
+
+    private static class DefaultExecutorHolder {
+
+        private static final Executor INSTANCE = ForkJoinPool.getCommonPoolParallelism() > 1
+                ? ForkJoinPool.commonPool()
+                : runnable -> new Thread(runnable).start();
+    }
+
+    private static class TimingWheelSchedulerHolder {
+
+        private static final TimingWheelScheduler INSTANCE = TimingWheelScheduler.builder().build();
+    }
+
+    private static class VirtualThreadHolder {
+
+        private static final ThreadFactory FACTORY = createFactory();
+
+        private static ThreadFactory createFactory() {
+            try {
+                Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+                Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+                builder = builderType.getMethod("name", String.class, long.class).invoke(builder, "javatry-virtual-", 0L);
+                Method factory = builderType.getMethod("factory");
+                return (ThreadFactory) factory.invoke(builder);
+            } catch (ReflectiveOperationException | LinkageError e) {
+                return null;
+            }
+        }
+    }
+
+    private static class DefaultSchedulerHolder {
+
+        private static final DelayScheduler INSTANCE = DelayScheduler.of(createExecutor());
+
+        private static ScheduledThreadPoolExecutor createExecutor() {
+            ScheduledThreadPoolExecutor executor =
+                    new ScheduledThreadPoolExecutor(1, daemonThreadFactory("javatry-scheduler"));
+            executor.setRemoveOnCancelPolicy(true);
+            return executor;
+        }
+    }
+}
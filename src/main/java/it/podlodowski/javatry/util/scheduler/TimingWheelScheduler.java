@@ -0,0 +1,279 @@
+package it.podlodowski.javatry.util.scheduler;
+
+import it.podlodowski.javatry.util.precondition.Preconditions;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+public class TimingWheelScheduler implements DelayScheduler, AutoCloseable {
+
+    private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Executor dispatcher;
+    private final Queue<Timeout> added = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final long startNanos;
+    private final Thread worker;
+    private volatile boolean shutdown;
+    private long tick;
+
+    private TimingWheelScheduler(Builder builder) {
+        this.tickNanos = builder.tick.toNanos();
+        this.wheel = new Bucket[builder.ticksPerWheel];
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = wheel.length - 1;
+        this.dispatcher = builder.dispatcher;
+        this.startNanos = System.nanoTime();
+        this.worker = Schedulers.daemonThreadFactory(builder.threadName).newThread(this::work);
+        this.worker.start();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public Future<?> schedule(Runnable task, long delay, TimeUnit unit) {
+        if (shutdown) {
+            throw new RejectedExecutionException("Timing wheel scheduler is shut down");
+        }
+        Timeout timeout = new Timeout(task, System.nanoTime() - startNanos + Math.max(0, unit.toNanos(delay)));
+        pending.incrementAndGet();
+        added.add(timeout);
+        if (shutdown && added.remove(timeout)) {
+            pending.decrementAndGet();
+            throw new RejectedExecutionException("Timing wheel scheduler is shut down");
+        }
+        return timeout;
+    }
+
+    public int pending() {
+        return pending.get();
+    }
+
+    @Override
+    public void close() {
+        shutdown = true;
+        LockSupport.unpark(worker);
+        if (Thread.currentThread() != worker) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void work() {
+        List<Timeout> expired = new ArrayList<>();
+        while (!shutdown) {
+            long deadline = tickNanos * (tick + 1);
+            long sleepNanos;
+            while ((sleepNanos = deadline - (System.nanoTime() - startNanos)) > 0 && !shutdown) {
+                LockSupport.parkNanos(this, sleepNanos);
+            }
+            removeCancelled();
+            transferAdded();
+            wheel[(int) (tick & mask)].expire(deadline, expired);
+            tick++;
+            dispatch(expired);
+            expired.clear();
+        }
+        cancelPending();
+    }
+
+    private void cancelPending() {
+        Timeout timeout;
+        while ((timeout = added.poll()) != null) {
+            timeout.cancel(false);
+        }
+        for (Bucket bucket : wheel) {
+            bucket.cancelAll();
+        }
+        cancelled.clear();
+    }
+
+    private void transferAdded() {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            Timeout timeout = added.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            long ticks = Math.max(timeout.deadlineNanos / tickNanos, tick);
+            timeout.remainingRounds = (ticks - tick) / wheel.length;
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    private void removeCancelled() {
+        Timeout timeout;
+        while ((timeout = cancelled.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    private void dispatch(List<Timeout> expired) {
+        if (expired.isEmpty()) {
+            return;
+        }
+        Timeout[] batch = expired.toArray(new Timeout[0]);
+        try {
+            dispatcher.execute(() -> {
+                for (Timeout timeout : batch) {
+                    timeout.run();
+                }
+            });
+        } catch (RuntimeException e) {
+            for (Timeout timeout : batch) {
+                timeout.cancel(false);
+            }
+        }
+    }
+
+    private final class Timeout extends FutureTask<Void> {
+
+        private final long deadlineNanos;
+        private long remainingRounds;
+        private Bucket bucket;
+        private Timeout previous;
+        private Timeout next;
+
+        private Timeout(Runnable task, long deadlineNanos) {
+            super(task, null);
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelledNow = super.cancel(mayInterruptIfRunning);
+            if (cancelledNow) {
+                cancelled.add(this);
+            }
+            return cancelledNow;
+        }
+
+        @Override
+        protected void done() {
+            pending.decrementAndGet();
+        }
+    }
+
+    private static final class Bucket {
+
+        private Timeout head;
+        private Timeout tail;
+
+        private void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.previous = tail;
+                tail = timeout;
+            }
+        }
+
+        private void expire(long deadlineNanos, List<Timeout> expired) {
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.isCancelled()) {
+                    remove(timeout);
+                } else if (timeout.remainingRounds <= 0 && timeout.deadlineNanos <= deadlineNanos) {
+                    remove(timeout);
+                    expired.add(timeout);
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        private void cancelAll() {
+            while (head != null) {
+                Timeout timeout = head;
+                remove(timeout);
+                timeout.cancel(false);
+            }
+        }
+
+        private void remove(Timeout timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+            if (timeout.previous != null) {
+                timeout.previous.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.previous = timeout.previous;
+            } else {
+                tail = timeout.previous;
+            }
+            timeout.previous = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+
+    public static class Builder {
+
+        private Duration tick = Duration.ofMillis(10);
+        private int ticksPerWheel = 512;
+        private Executor dispatcher = Schedulers.defaultExecutor();
+        private String threadName = "javatry-timing-wheel";
+
+        private Builder() {
+        }
+
+        public Builder tick(Duration tick) {
+            Preconditions.checkArgument(tick.toNanos() >= TimeUnit.MILLISECONDS.toNanos(1), "tick must be at least 1 ms");
+            this.tick = tick;
+            return this;
+        }
+
+        public Builder ticksPerWheel(int ticksPerWheel) {
+            Preconditions.checkArgument(ticksPerWheel > 0 && Integer.bitCount(ticksPerWheel) == 1,
+                    "ticks per wheel must be a positive power of two");
+            this.ticksPerWheel = ticksPerWheel;
+            return this;
+        }
+
+        public Builder dispatchTo(Executor dispatcher) {
+            this.dispatcher = dispatcher;
+            return this;
+        }
+
+        public Builder threadName(String threadName) {
+            this.threadName = threadName;
+            return this;
+        }
+
+        public TimingWheelScheduler build() {
+            return new TimingWheelScheduler(this);
+        }
+    }
+}
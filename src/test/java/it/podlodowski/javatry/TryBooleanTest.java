@@ -0,0 +1,40 @@
+package it.podlodowski.javatry;
+
+import it.podlodowski.javatry.util.test.MagicException;
+import org.junit.Test;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TryBooleanTest {
+
+    @Test
+    public void should_return_value_when_done_within_max_tries_bound() throws Exception {
+        // given
+        AtomicInteger calls = new AtomicInteger();
+
+        // when
+        Optional<Boolean> result = TryBoolean.it(() -> {
+            if (calls.incrementAndGet() < 2) {
+                throw new MagicException();
+            }
+            return true;
+        }).times(2).now();
+
+        // then
+        assertThat(result).contains(true);
+    }
+
+    @Test
+    public void should_return_default_value_when_all_tries_failed() throws Exception {
+        // when
+        boolean result = TryBoolean.it(() -> {
+            throw new MagicException();
+        }).times(2).orElse(false);
+
+        // then
+        assertThat(result).isFalse();
+    }
+}
@@ -0,0 +1,40 @@
+package it.podlodowski.javatry;
+
+import it.podlodowski.javatry.util.test.MagicException;
+import org.junit.Test;
+
+import java.util.OptionalDouble;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TryDoubleTest {
+
+    @Test
+    public void should_return_value_when_done_within_max_tries_bound() throws Exception {
+        // given
+        AtomicInteger calls = new AtomicInteger();
+
+        // when
+        OptionalDouble result = TryDouble.it(() -> {
+            if (calls.incrementAndGet() < 2) {
+                throw new MagicException();
+            }
+            return -0.5;
+        }).times(2).now();
+
+        // then
+        assertThat(result.getAsDouble()).isEqualTo(-0.5);
+    }
+
+    @Test
+    public void should_return_default_value_when_all_tries_failed() throws Exception {
+        // when
+        double result = TryDouble.it(() -> {
+            throw new MagicException();
+        }).times(2).orElse(Double.NaN);
+
+        // then
+        assertThat(result).isNaN();
+    }
+}
@@ -0,0 +1,112 @@
+package it.podlodowski.javatry;
+
+import it.podlodowski.javatry.util.test.MagicException;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TryIntTest {
+
+    @Test
+    public void should_return_value_when_done_within_max_tries_bound() throws Exception {
+        // given
+        AtomicInteger calls = new AtomicInteger();
+
+        // when
+        int result = TryInt.it(() -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new MagicException();
+            }
+            return 42;
+        }).times(3).orThrow();
+
+        // then
+        assertThat(result).isEqualTo(42);
+        assertThat(calls.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void should_return_empty_and_consume_exception_when_all_tries_failed() throws Exception {
+        // given
+        List<Exception> consumed = new ArrayList<>();
+
+        // when
+        OptionalInt result = TryInt.it(() -> {
+            throw new MagicException();
+        }).times(2).onException(consumed::add).now();
+
+        // then
+        assertThat(result.isPresent()).isFalse();
+        assertThat(consumed).hasSize(1).hasOnlyElementsOfType(MagicException.class);
+    }
+
+    @Test
+    public void should_return_default_value_when_all_tries_failed() throws Exception {
+        // when
+        int result = TryInt.it(() -> {
+            throw new MagicException();
+        }).times(2).orElse(-1);
+
+        // then
+        assertThat(result).isEqualTo(-1);
+    }
+
+    @Test(expected = MagicException.class)
+    public void should_throw_last_exception_when_all_tries_failed() throws Exception {
+        // when
+        TryInt.it(() -> {
+            throw new MagicException();
+        }).times(2).orThrow();
+        // then an exception should be thrown
+    }
+
+    @Test
+    public void should_not_retry_aborted_exception() throws Exception {
+        // given
+        AtomicInteger calls = new AtomicInteger();
+
+        // when
+        OptionalInt result = TryInt.it(() -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException();
+        }).times(3).abortOn(IllegalStateException.class).now();
+
+        // then
+        assertThat(result.isPresent()).isFalse();
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_not_allocate_when_reused() throws Exception {
+        // given
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threadMXBean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threadMXBean;
+        Assume.assumeTrue(allocations.isThreadAllocatedMemorySupported());
+        long threadId = Thread.currentThread().getId();
+        TryInt tryInt = TryInt.it(() -> 42).times(3);
+        for (int i = 0; i < 100_000; i++) {
+            tryInt.orThrow();
+        }
+
+        // when
+        long before = allocations.getThreadAllocatedBytes(threadId);
+        long sum = 0;
+        for (int i = 0; i < 100_000; i++) {
+            sum += tryInt.orThrow();
+        }
+        long after = allocations.getThreadAllocatedBytes(threadId);
+
+        // then
+        assertThat(sum).isEqualTo(4_200_000);
+        assertThat(after - before).isLessThan(100_000);
+    }
+}
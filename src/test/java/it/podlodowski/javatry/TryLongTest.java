@@ -0,0 +1,40 @@
+package it.podlodowski.javatry;
+
+import it.podlodowski.javatry.util.test.MagicException;
+import org.junit.Test;
+
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TryLongTest {
+
+    @Test
+    public void should_return_value_when_done_within_max_tries_bound() throws Exception {
+        // given
+        AtomicInteger calls = new AtomicInteger();
+
+        // when
+        OptionalLong result = TryLong.it(() -> {
+            if (calls.incrementAndGet() < 2) {
+                throw new MagicException();
+            }
+            return Long.MAX_VALUE;
+        }).times(2).now();
+
+        // then
+        assertThat(result.getAsLong()).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    public void should_return_default_value_when_all_tries_failed() throws Exception {
+        // when
+        long result = TryLong.it(() -> {
+            throw new MagicException();
+        }).times(2).orElse(-1L);
+
+        // then
+        assertThat(result).isEqualTo(-1L);
+    }
+}
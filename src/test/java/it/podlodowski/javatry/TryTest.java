@@ -1,9 +1,24 @@
 package it.podlodowski.javatry;
 
+import it.podlodowski.javatry.util.backoff.Backoffs;
+import it.podlodowski.javatry.util.budget.RetryBudget;
+import it.podlodowski.javatry.util.bulkhead.Bulkhead;
+import it.podlodowski.javatry.util.bulkhead.BulkheadFullException;
+import it.podlodowski.javatry.util.circuitbreaker.CircuitBreaker;
+import it.podlodowski.javatry.util.circuitbreaker.CircuitBreakerOpenException;
+import it.podlodowski.javatry.util.consumer.Consumers;
+import it.podlodowski.javatry.util.metrics.RetryListener;
+import it.podlodowski.javatry.util.metrics.RetryMetrics;
+import it.podlodowski.javatry.util.outcome.FailedOutcomeException;
+import it.podlodowski.javatry.util.outcome.Outcome;
+import it.podlodowski.javatry.util.retry.BatchResult;
+import it.podlodowski.javatry.util.retry.RetryPolicy;
+import it.podlodowski.javatry.util.scheduler.Schedulers;
 import it.podlodowski.javatry.util.test.MagicException;
 import it.podlodowski.javatry.util.test.MagicStatus;
 import it.podlodowski.javatry.util.test.MagicWizard;
 import org.assertj.core.data.Offset;
+import org.junit.Assume;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -15,11 +30,17 @@ import java.util.ArrayList;
 import java.util.EmptyStackException;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -323,4 +344,567 @@ public class TryTest {
         verify(wizard, atLeastOnce()).doMagic();
         assertThat(expected).hasOnlyElementsOfType(MagicException.class);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void should_run_future_attempts_on_configured_executor() throws Exception {
+        // given
+        AtomicInteger executions = new AtomicInteger();
+        when(wizard.doMagic()).thenReturn(FAILED, DONE);
+
+        // when
+        CompletableFuture<MagicStatus> future = Try.it(wizard::doMagicOrThrowException).times(2)
+                .withExecutor(task -> {
+                    executions.incrementAndGet();
+                    task.run();
+                })
+                .future();
+
+        // then
+        assertThat(future.get(1, TimeUnit.SECONDS)).isEqualTo(DONE);
+        assertThat(executions.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void should_not_hold_executor_thread_while_waiting_for_retry() throws Exception {
+        // given
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        when(wizard.doMagic()).thenReturn(FAILED, DONE);
+
+        // when
+        CompletableFuture<MagicStatus> future = Try.it(wizard::doMagicOrThrowException).times(2)
+                .withExecutor(executor)
+                .withDelay(Duration.ofMillis(500))
+                .future();
+        Thread.sleep(100);
+        Future<String> other = executor.submit(() -> "free");
+
+        // then
+        assertThat(other.get(100, TimeUnit.MILLISECONDS)).isEqualTo("free");
+        assertThat(future.get(2, TimeUnit.SECONDS)).isEqualTo(DONE);
+        executor.shutdown();
+    }
+
+    @Test
+    public void should_execute_retries_with_configured_backoff() throws Exception {
+        // given
+        when(wizard.doMagic()).thenReturn(FAILED, FAILED, DONE);
+        long startTime = System.currentTimeMillis();
+        List<Long> retryTimes = new ArrayList<>();
+
+        // when
+        Try.it(wizard::doMagicOrThrowException).times(3)
+                .onRetry(() -> retryTimes.add(System.currentTimeMillis()))
+                .withBackoff(Backoffs.exponential(Duration.ofMillis(50))).now();
+
+        // then
+        assertThat(retryTimes).hasSize(2);
+        assertThat(retryTimes.get(0) - startTime).isGreaterThanOrEqualTo(50);
+        assertThat(retryTimes.get(1) - retryTimes.get(0)).isGreaterThanOrEqualTo(100);
+    }
+
+    @Test
+    public void should_not_call_method_when_circuit_breaker_open() throws Exception {
+        // given
+        CircuitBreaker circuitBreaker = CircuitBreaker.builder()
+                .minimumNumberOfCalls(3).waitInOpenState(Duration.ofMinutes(1)).build();
+        List<Exception> consumed = new ArrayList<>();
+        when(wizard.doMagic()).thenReturn(FAILED);
+        Try.it(wizard::doMagicOrThrowException).times(5).withCircuitBreaker(circuitBreaker).now();
+
+        // when
+        Optional<MagicStatus> magicStatus = Try.it(wizard::doMagicOrThrowException).times(5)
+                .withCircuitBreaker(circuitBreaker).onException(consumed::add).now();
+
+        // then
+        verify(wizard, times(3)).doMagic();
+        assertThat(magicStatus).isEmpty();
+        assertThat(consumed).hasSize(1).hasOnlyElementsOfType(CircuitBreakerOpenException.class);
+    }
+
+    @Test(expected = CircuitBreakerOpenException.class)
+    public void should_fail_fast_with_or_throw_when_circuit_breaker_open() throws Exception {
+        // given
+        CircuitBreaker circuitBreaker = CircuitBreaker.builder()
+                .minimumNumberOfCalls(1).waitInOpenState(Duration.ofMinutes(1)).build();
+        circuitBreaker.onFailure();
+
+        // when
+        Try.it(wizard::doMagicOrThrowException).withCircuitBreaker(circuitBreaker).orThrow();
+
+        // then an exception should be thrown
+    }
+
+    @Test
+    public void should_complete_future_without_calling_method_when_circuit_breaker_open() throws Exception {
+        // given
+        CircuitBreaker circuitBreaker = CircuitBreaker.builder()
+                .minimumNumberOfCalls(1).waitInOpenState(Duration.ofMinutes(1)).build();
+        circuitBreaker.onFailure();
+        List<Exception> consumed = new ArrayList<>();
+
+        // when
+        CompletableFuture<MagicStatus> future = Try.it(wizard::doMagicOrThrowException).times(3)
+                .withCircuitBreaker(circuitBreaker).onException(consumed::add).future();
+
+        // then
+        assertThat(future.get(1, TimeUnit.SECONDS)).isNull();
+        verify(wizard, never()).doMagic();
+        assertThat(consumed).hasOnlyElementsOfType(CircuitBreakerOpenException.class);
+    }
+
+    @Test
+    public void should_stop_retrying_when_retry_budget_exhausted() throws Exception {
+        // given
+        RetryBudget retryBudget = RetryBudget.builder().retryRatio(0.5).minRetriesPerSecond(0).build();
+        when(wizard.doMagic()).thenReturn(FAILED);
+
+        // when
+        Try.it(wizard::doMagicOrThrowException).times(5).withRetryBudget(retryBudget).now();
+        Try.it(wizard::doMagicOrThrowException).times(5).withRetryBudget(retryBudget).now();
+
+        // then
+        verify(wizard, times(3)).doMagic();
+    }
+
+    @Test
+    public void should_notify_listener_about_every_attempt_and_delay() throws Exception {
+        // given
+        List<String> events = new ArrayList<>();
+        RetryListener listener = new RetryListener() {
+            @Override
+            public void onAttemptStart(String name, int attempt) {
+                events.add(name + " start " + attempt);
+            }
+
+            @Override
+            public void onAttemptEnd(String name, int attempt, long elapsedNanos, Throwable throwable) {
+                events.add(name + " end " + attempt + " " + (throwable == null ? "ok" : "failed"));
+            }
+
+            @Override
+            public void onDelay(String name, int retry, long delayNanos) {
+                events.add(name + " delay " + retry + " " + TimeUnit.NANOSECONDS.toMillis(delayNanos));
+            }
+        };
+        when(wizard.doMagic()).thenReturn(FAILED, DONE);
+
+        // when
+        Try.it(wizard::doMagicOrThrowException).times(2).named("magic")
+                .withDelay(Duration.ofMillis(10)).withListener(listener).now();
+
+        // then
+        assertThat(events).containsExactly("magic start 1", "magic end 1 failed", "magic delay 1 10",
+                "magic start 2", "magic end 2 ok");
+    }
+
+    @Test
+    public void should_record_metrics_for_named_future() throws Exception {
+        // given
+        RetryMetrics metrics = new RetryMetrics();
+        when(wizard.doMagic()).thenReturn(FAILED, FAILED, DONE);
+
+        // when
+        Try.it(wizard::doMagicOrThrowException).times(3).named("magic")
+                .withListener(metrics).future().get(1, TimeUnit.SECONDS);
+
+        // then
+        assertThat(metrics.stats("magic").attempts()).isEqualTo(3);
+        assertThat(metrics.stats("magic").failures()).isEqualTo(2);
+        assertThat(metrics.stats("magic").attemptLatency().count()).isEqualTo(3);
+    }
+
+    @Test
+    public void should_interrupt_attempt_exceeding_attempt_timeout_and_retry() throws Exception {
+        // given
+        List<Exception> consumed = new ArrayList<>();
+        when(wizard.doMagic()).thenAnswer(invocation -> {
+            Thread.sleep(10_000);
+            return DONE;
+        }).thenReturn(DONE);
+
+        // when
+        long startTime = System.currentTimeMillis();
+        Optional<MagicStatus> magicStatus = Try.it(wizard::doMagicOrThrowException).times(2)
+                .attemptTimeout(Duration.ofMillis(100)).onException(consumed::add).now();
+
+        // then
+        assertThat(magicStatus).hasValue(DONE);
+        assertThat(System.currentTimeMillis() - startTime).isLessThan(5_000);
+        assertThat(Thread.currentThread().isInterrupted()).isFalse();
+        verify(wizard, times(2)).doMagic();
+    }
+
+    @Test(expected = TimeoutException.class)
+    public void should_fail_with_timeout_when_last_attempt_times_out() throws Exception {
+        // given
+        when(wizard.doMagic()).thenAnswer(invocation -> {
+            Thread.sleep(10_000);
+            return DONE;
+        });
+
+        // when
+        Try.it(wizard::doMagicOrThrowException).attemptTimeout(Duration.ofMillis(100)).orThrow();
+
+        // then an exception should be thrown
+    }
+
+    @Test
+    public void should_stop_retrying_when_deadline_exceeded() throws Exception {
+        // given
+        when(wizard.doMagic()).thenReturn(FAILED);
+
+        // when
+        long startTime = System.currentTimeMillis();
+        Try.it(wizard::doMagicOrThrowException).times(100)
+                .withDelay(Duration.ofMillis(100)).deadline(Duration.ofMillis(350)).now();
+
+        // then
+        assertThat(System.currentTimeMillis() - startTime).isLessThan(1_000);
+        verify(wizard, atMost(4)).doMagic();
+    }
+
+    @Test
+    public void should_stop_endless_retries_when_deadline_exceeded() throws Exception {
+        // given
+        List<Exception> consumed = new ArrayList<>();
+        when(wizard.doMagic()).thenReturn(FAILED);
+
+        // when
+        CompletableFuture<MagicStatus> future = Try.it(wizard::doMagicOrThrowException).endless()
+                .withDelay(Duration.ofMillis(100)).deadline(Duration.ofMillis(150)).onException(consumed::add)
+                .future();
+
+        // then
+        assertThat(future.get(2, TimeUnit.SECONDS)).isNull();
+        assertThat(consumed).hasSize(1).hasOnlyElementsOfType(MagicException.class);
+        verify(wizard, times(2)).doMagic();
+    }
+
+    @Test
+    public void should_give_up_with_previous_failure_when_deadline_passed_before_next_attempt() throws Exception {
+        // given
+        List<Exception> consumed = new ArrayList<>();
+        when(wizard.doMagic()).thenReturn(FAILED);
+
+        // when
+        Try.it(wizard::doMagicOrThrowException).times(3).deadline(Duration.ofMillis(50))
+                .onRetry(() -> LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100))).onException(consumed::add).now();
+
+        // then
+        assertThat(consumed).hasSize(1).hasOnlyElementsOfType(MagicException.class);
+        verify(wizard, times(1)).doMagic();
+    }
+
+    @Test
+    public void should_interrupt_running_attempt_and_stop_retrying_when_future_cancelled() throws Exception {
+        // given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(wizard.doMagic()).thenAnswer(invocation -> {
+            started.countDown();
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return DONE;
+        });
+
+        // when
+        CompletableFuture<MagicStatus> future = Try.it(wizard::doMagicOrThrowException).times(5).future();
+        started.await(1, TimeUnit.SECONDS);
+        future.cancel(true);
+
+        // then
+        assertThat(interrupted.await(1, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(100);
+        verify(wizard, times(1)).doMagic();
+    }
+
+    @Test
+    public void should_hedge_slow_future() throws Exception {
+        // given
+        when(wizard.doMagic()).thenAnswer(invocation -> {
+            Thread.sleep(10_000);
+            return FAILED;
+        }).thenReturn(DONE);
+
+        // when
+        CompletableFuture<MagicStatus> future = Try.it(wizard::doMagicOrThrowException)
+                .hedgeAfter(Duration.ofMillis(50), 1).future();
+
+        // then
+        assertThat(future.get(2, TimeUnit.SECONDS)).isEqualTo(DONE);
+        verify(wizard, times(2)).doMagic();
+    }
+
+    @Test
+    public void should_not_retry_when_exception_is_aborted() throws Exception {
+        // given
+        when(wizard.doMagic()).thenReturn(FAILED, DONE);
+        List<Exception> consumed = new ArrayList<>();
+
+        // when
+        Optional<MagicStatus> result = Try.it(wizard::doMagicOrThrowException).times(3)
+                .abortOn(MagicException.class).onException(consumed::add).now();
+
+        // then
+        assertThat(result).isEmpty();
+        assertThat(consumed).hasSize(1).hasOnlyElementsOfType(MagicException.class);
+        verify(wizard, times(1)).doMagic();
+    }
+
+    @Test
+    public void should_retry_only_on_listed_exceptions() throws Exception {
+        // given
+        when(wizard.doMagic()).thenThrow(new EmptyStackException()).thenReturn(FAILED).thenReturn(DONE);
+
+        // when
+        Optional<MagicStatus> result = Try.it(wizard::doMagicOrThrowException).times(3)
+                .retryOn(EmptyStackException.class).now();
+
+        // then
+        assertThat(result).isEmpty();
+        verify(wizard, times(2)).doMagic();
+    }
+
+    @Test
+    public void should_retry_only_when_exception_matches_predicate() throws Exception {
+        // given
+        when(wizard.doMagic()).thenThrow(new IllegalStateException("transient"))
+                .thenThrow(new IllegalStateException("fatal")).thenReturn(DONE);
+
+        // when
+        Optional<MagicStatus> result = Try.it(wizard::doMagicOrThrowException).times(3)
+                .retryIf(e -> "transient".equals(e.getMessage())).now();
+
+        // then
+        assertThat(result).isEmpty();
+        verify(wizard, times(2)).doMagic();
+    }
+
+    @Test
+    public void should_retry_while_result_matches_predicate() throws Exception {
+        // given
+        when(wizard.doMagic()).thenReturn(FAILED, FAILED, DONE);
+
+        // when
+        Optional<MagicStatus> result = Try.it(wizard::doMagic).times(5)
+                .retryIfResult(status -> status == FAILED).now();
+
+        // then
+        assertThat(result).contains(DONE);
+        verify(wizard, times(3)).doMagic();
+    }
+
+    @Test
+    public void should_return_last_result_when_result_predicate_still_matches_after_all_tries() throws Exception {
+        // given
+        when(wizard.doMagic()).thenReturn(FAILED);
+        List<Exception> consumed = new ArrayList<>();
+
+        // when
+        MagicStatus result = Try.it(wizard::doMagic).times(3)
+                .retryIfResult(status -> status == FAILED).onException(consumed::add).orThrow();
+
+        // then
+        assertThat(result).isEqualTo(FAILED);
+        assertThat(consumed).isEmpty();
+        verify(wizard, times(3)).doMagic();
+    }
+
+    @Test
+    public void should_apply_classification_to_future() throws Exception {
+        // given
+        when(wizard.doMagic()).thenReturn(FAILED, DONE);
+
+        // when
+        CompletableFuture<MagicStatus> aborted = Try.it(wizard::doMagicOrThrowException).times(3)
+                .abortOn(MagicException.class).future();
+
+        // then
+        assertThat(aborted.get(2, TimeUnit.SECONDS)).isNull();
+        verify(wizard, times(1)).doMagic();
+    }
+
+    @Test
+    public void should_retry_future_while_result_matches_predicate() throws Exception {
+        // given
+        when(wizard.doMagic()).thenReturn(FAILED, FAILED, DONE);
+
+        // when
+        CompletableFuture<MagicStatus> future = Try.it(wizard::doMagic).times(2)
+                .retryIfResult(status -> status == FAILED).future();
+
+        // then
+        assertThat(future.get(2, TimeUnit.SECONDS)).isEqualTo(FAILED);
+        verify(wizard, times(2)).doMagic();
+    }
+
+    @Test
+    public void should_retry_future_on_virtual_threads() throws Exception {
+        // given
+        Assume.assumeTrue(Schedulers.isVirtualThreadSupported());
+        when(wizard.doMagic()).thenReturn(FAILED, DONE);
+
+        // when
+        CompletableFuture<MagicStatus> future = Try.it(wizard::doMagicOrThrowException).times(2)
+                .withDelay(Duration.ofMillis(10)).onVirtualThreads().future();
+
+        // then
+        assertThat(future.get(2, TimeUnit.SECONDS)).isEqualTo(DONE);
+        verify(wizard, times(2)).doMagic();
+    }
+
+    @Test
+    public void should_retry_batch_with_per_item_results() throws Exception {
+        // given
+        MagicWizard other = mock(MagicWizard.class);
+        when(other.doMagic()).thenReturn(FAILED);
+        when(wizard.doMagic()).thenReturn(FAILED, DONE);
+        List<Callable<MagicStatus>> callables = new ArrayList<>();
+        callables.add(wizard::doMagic);
+        callables.add(other::doMagic);
+
+        // when
+        BatchResult<MagicStatus> result = Try.all(callables).times(3)
+                .retryIfResult(status -> status == FAILED).parallelism(2).now();
+
+        // then
+        assertThat(result.get(0)).isEqualTo(DONE);
+        assertThat(result.get(1)).isEqualTo(FAILED);
+        verify(wizard, times(2)).doMagic();
+        verify(other, times(3)).doMagic();
+    }
+
+    @Test(expected = BulkheadFullException.class)
+    public void should_reject_attempt_when_bulkhead_is_full() throws Exception {
+        // given
+        Bulkhead bulkhead = Bulkhead.of(1);
+        bulkhead.tryAcquirePermission();
+
+        // when
+        Try.it(wizard::doMagicOrThrowException).withBulkhead(bulkhead).orThrow();
+        // then an exception should be thrown
+    }
+
+    @Test
+    public void should_queue_future_attempt_until_bulkhead_permits() throws Exception {
+        // given
+        when(wizard.doMagic()).thenReturn(DONE);
+        Bulkhead bulkhead = Bulkhead.builder().maxConcurrentCalls(1).maxWaitingCalls(1).build();
+        bulkhead.tryAcquirePermission();
+
+        // when
+        CompletableFuture<MagicStatus> future = Try.it(wizard::doMagicOrThrowException).withBulkhead(bulkhead).future();
+        Thread.sleep(100);
+        boolean doneBeforeRelease = future.isDone();
+        bulkhead.release();
+
+        // then
+        assertThat(doneBeforeRelease).isFalse();
+        assertThat(future.get(1, TimeUnit.SECONDS)).isEqualTo(DONE);
+        assertThat(bulkhead.getInFlight()).isZero();
+    }
+
+    @Test
+    public void should_resume_stream_after_failure() throws Exception {
+        // given
+        List<Integer> opens = new ArrayList<>();
+        List<Integer> received = new ArrayList<>();
+
+        // when
+        Try.<Integer>resumable((position, last) -> {
+            opens.add((int) position);
+            return Stream.iterate((int) position, i -> i + 1).limit(5 - position).map(i -> {
+                if (i == 3 && opens.size() == 1) {
+                    throw new IllegalStateException("cursor lost");
+                }
+                return i;
+            }).iterator();
+        }).times(2).forEachOrThrow(received::add);
+
+        // then
+        assertThat(received).containsExactly(0, 1, 2, 3, 4);
+        assertThat(opens).containsExactly(0, 3);
+    }
+
+    @Test
+    public void should_retry_failed_outcomes() throws Exception {
+        // given
+        AtomicInteger calls = new AtomicInteger();
+
+        // when
+        Optional<String> result = Try.outcome(() -> calls.incrementAndGet() < 3
+                ? Outcome.<String>failure("unavailable") : Outcome.success("value")).times(3).now();
+
+        // then
+        assertThat(result).contains("value");
+        assertThat(calls.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void should_throw_last_failed_outcome() throws Exception {
+        // given
+        List<Exception> consumed = new ArrayList<>();
+
+        // when
+        Optional<String> result = Try.outcome(() -> Outcome.<String>failure("unavailable"))
+                .times(2).onException(consumed::add).now();
+
+        // then
+        assertThat(result).isEmpty();
+        assertThat(consumed).hasSize(1).hasOnlyElementsOfType(FailedOutcomeException.class);
+    }
+
+    @Test
+    public void should_time_out_attempt_with_stackless_exception() throws Exception {
+        // given
+        when(wizard.doMagic()).thenAnswer(invocation -> {
+            Thread.sleep(1_000);
+            return DONE;
+        });
+        List<Exception> consumed = new ArrayList<>();
+
+        // when
+        Optional<MagicStatus> result = Try.it(wizard::doMagicOrThrowException)
+                .attemptTimeout(Duration.ofMillis(20)).stackless().onException(consumed::add).now();
+
+        // then
+        assertThat(result).isEmpty();
+        assertThat(consumed).hasSize(1);
+        assertThat(consumed.get(0)).isInstanceOf(TimeoutException.class);
+        assertThat(consumed.get(0).getStackTrace()).isEmpty();
+    }
+
+    @Test
+    public void should_pass_only_sampled_exceptions_to_consumer() throws Exception {
+        // given
+        when(wizard.doMagic()).thenReturn(FAILED);
+        List<Exception> consumed = new ArrayList<>();
+        RetryPolicy policy = RetryPolicy.builder().times(2).onException(Consumers.sampled(consumed::add, 5)).build();
+
+        // when
+        for (int i = 0; i < 10; i++) {
+            Try.it(wizard::doMagicOrThrowException, policy).now();
+        }
+
+        // then
+        assertThat(consumed).hasSize(2);
+    }
+
+    @Test
+    public void should_retry_async_supplier_without_blocking() throws Exception {
+        // given
+        when(wizard.doMagic()).thenReturn(FAILED, DONE);
+
+        // when
+        CompletableFuture<MagicStatus> future = Try.async(() -> CompletableFuture.supplyAsync(wizard::doMagic))
+                .times(2).retryIfResult(status -> status == FAILED).future();
+
+        // then
+        assertThat(future.get(2, TimeUnit.SECONDS)).isEqualTo(DONE);
+        verify(wizard, times(2)).doMagic();
+    }
+}
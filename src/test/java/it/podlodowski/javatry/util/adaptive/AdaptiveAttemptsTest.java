@@ -0,0 +1,165 @@
+package it.podlodowski.javatry.util.adaptive;
+
+import it.podlodowski.javatry.Try;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AdaptiveAttemptsTest {
+
+    @Test
+    public void should_estimate_success_probability_from_recent_attempts() {
+        // given
+        AdaptiveAttempts adaptive = AdaptiveAttempts.withinSlo(Duration.ofSeconds(1));
+
+        // when
+        for (int i = 0; i < 8; i++) {
+            adaptive.onAttempt(TimeUnit.MILLISECONDS.toNanos(10), i % 4 != 0);
+        }
+
+        // then
+        assertThat(adaptive.successProbability()).isEqualTo(7 / 10.0);
+        assertThat(adaptive.meanLatencyNanos()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(10));
+    }
+
+    @Test
+    public void should_forget_old_attempts() throws Exception {
+        // given
+        AdaptiveAttempts adaptive = AdaptiveAttempts.builder().halfLife(Duration.ofMillis(10)).build();
+        for (int i = 0; i < 100; i++) {
+            adaptive.onAttempt(0, false);
+        }
+
+        // when
+        Thread.sleep(60);
+
+        // then
+        assertThat(adaptive.successProbability()).isEqualTo(0.5);
+    }
+
+    @Test
+    public void should_stop_when_another_attempt_is_unlikely_to_succeed() {
+        // given
+        AdaptiveAttempts adaptive = AdaptiveAttempts.builder().minSuccessProbability(0.1).build();
+        for (int i = 0; i < 50; i++) {
+            adaptive.onAttempt(0, false);
+        }
+
+        // when
+        long delayNanos = adaptive.delayNanos(1, 0, 0);
+
+        // then
+        assertThat(delayNanos).isEqualTo(AdaptiveAttempts.NO_MORE_ATTEMPTS);
+    }
+
+    @Test
+    public void should_shrink_delay_to_fit_latency_slo() {
+        // given
+        AdaptiveAttempts adaptive = AdaptiveAttempts.withinSlo(Duration.ofMillis(100));
+        adaptive.onAttempt(TimeUnit.MILLISECONDS.toNanos(20), true);
+
+        // when
+        long delayNanos = adaptive.delayNanos(1, TimeUnit.MILLISECONDS.toNanos(50), TimeUnit.MILLISECONDS.toNanos(100));
+
+        // then
+        assertThat(delayNanos).isEqualTo(TimeUnit.MILLISECONDS.toNanos(30));
+    }
+
+    @Test
+    public void should_stop_when_next_attempt_would_miss_latency_slo() {
+        // given
+        AdaptiveAttempts adaptive = AdaptiveAttempts.withinSlo(Duration.ofMillis(100));
+        adaptive.onAttempt(TimeUnit.MILLISECONDS.toNanos(60), true);
+
+        // when
+        long delayNanos = adaptive.delayNanos(1, TimeUnit.MILLISECONDS.toNanos(50), 0);
+
+        // then
+        assertThat(delayNanos).isEqualTo(AdaptiveAttempts.NO_MORE_ATTEMPTS);
+    }
+
+    @Test
+    public void should_retry_healthy_dependency_until_success() throws Exception {
+        // given
+        AdaptiveAttempts adaptive = AdaptiveAttempts.withinSlo(Duration.ofSeconds(1));
+        AtomicInteger attempts = new AtomicInteger();
+
+        // when
+        Integer result = Try.it(() -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new IllegalStateException();
+            }
+            return attempts.get();
+        }).withAdaptiveAttempts(adaptive).orThrow();
+
+        // then
+        assertThat(result).isEqualTo(3);
+    }
+
+    @Test
+    public void should_stop_retrying_dependency_during_outage() {
+        // given
+        AdaptiveAttempts adaptive = AdaptiveAttempts.builder().minSuccessProbability(0.2).build();
+        AtomicInteger attempts = new AtomicInteger();
+
+        // when
+        for (int i = 0; i < 10; i++) {
+            Try.it(() -> {
+                attempts.incrementAndGet();
+                throw new IllegalStateException();
+            }).withAdaptiveAttempts(adaptive).now();
+        }
+
+        // then
+        assertThat(attempts.get()).isLessThan(20);
+    }
+
+    @Test
+    public void should_cap_attempts() {
+        // given
+        AdaptiveAttempts adaptive = AdaptiveAttempts.builder().maxAttempts(3).minSuccessProbability(0).build();
+        AtomicInteger attempts = new AtomicInteger();
+
+        // when
+        Try.it(() -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException();
+        }).withAdaptiveAttempts(adaptive).now();
+
+        // then
+        assertThat(attempts.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void should_apply_lower_of_both_caps_regardless_of_order() {
+        // given
+        AdaptiveAttempts adaptive = AdaptiveAttempts.builder().maxAttempts(5).minSuccessProbability(0).build();
+        AtomicInteger timesFirst = new AtomicInteger();
+        AtomicInteger adaptiveFirst = new AtomicInteger();
+
+        // when
+        Try.it(() -> {
+            timesFirst.incrementAndGet();
+            throw new IllegalStateException();
+        }).times(2).withAdaptiveAttempts(adaptive).now();
+        Try.it(() -> {
+            adaptiveFirst.incrementAndGet();
+            throw new IllegalStateException();
+        }).withAdaptiveAttempts(adaptive).times(2).now();
+
+        // then
+        assertThat(timesFirst.get()).isEqualTo(2);
+        assertThat(adaptiveFirst.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void should_reject_non_positive_latency_slo() {
+        assertThatThrownBy(() -> AdaptiveAttempts.withinSlo(Duration.ZERO))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
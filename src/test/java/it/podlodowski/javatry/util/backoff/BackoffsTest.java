@@ -0,0 +1,95 @@
+package it.podlodowski.javatry.util.backoff;
+
+import org.junit.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BackoffsTest {
+
+    private static final long MILLI = 1_000_000L;
+
+    @Test
+    public void should_not_delay_for_none() throws Exception {
+        // when
+        BackoffStrategy backoff = Backoffs.none();
+
+        // then
+        assertThat(backoff.delayNanos(1, 0)).isZero();
+        assertThat(backoff.delayNanos(10, 0)).isZero();
+    }
+
+    @Test
+    public void should_use_same_delay_for_every_retry_when_fixed() throws Exception {
+        // when
+        BackoffStrategy backoff = Backoffs.fixed(Duration.ofMillis(100));
+
+        // then
+        assertThat(backoff.delayNanos(1, 0)).isEqualTo(100 * MILLI);
+        assertThat(backoff.delayNanos(5, 100 * MILLI)).isEqualTo(100 * MILLI);
+    }
+
+    @Test
+    public void should_grow_delay_exponentially() throws Exception {
+        // when
+        BackoffStrategy backoff = Backoffs.exponential(Duration.ofMillis(100));
+
+        // then
+        assertThat(backoff.delayNanos(1, 0)).isEqualTo(100 * MILLI);
+        assertThat(backoff.delayNanos(2, 0)).isEqualTo(200 * MILLI);
+        assertThat(backoff.delayNanos(4, 0)).isEqualTo(800 * MILLI);
+        assertThat(backoff.delayNanos(Integer.MAX_VALUE, 0)).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    public void should_cap_delay() throws Exception {
+        // when
+        BackoffStrategy backoff = Backoffs.capped(Backoffs.exponential(Duration.ofMillis(100)), Duration.ofMillis(300));
+
+        // then
+        assertThat(backoff.delayNanos(1, 0)).isEqualTo(100 * MILLI);
+        assertThat(backoff.delayNanos(2, 0)).isEqualTo(200 * MILLI);
+        assertThat(backoff.delayNanos(3, 0)).isEqualTo(300 * MILLI);
+        assertThat(backoff.delayNanos(30, 0)).isEqualTo(300 * MILLI);
+    }
+
+    @Test
+    public void should_keep_full_jitter_within_underlying_delay() throws Exception {
+        // given
+        BackoffStrategy backoff = Backoffs.fullJitter(Backoffs.fixed(Duration.ofMillis(100)));
+
+        // then
+        for (int i = 0; i < 1000; i++) {
+            assertThat(backoff.delayNanos(1, 0)).isBetween(0L, 100 * MILLI);
+        }
+    }
+
+    @Test
+    public void should_keep_decorrelated_jitter_between_base_and_max() throws Exception {
+        // given
+        BackoffStrategy backoff = Backoffs.decorrelatedJitter(Duration.ofMillis(10), Duration.ofMillis(100));
+        long delay = 0;
+
+        // then
+        for (int i = 1; i <= 1000; i++) {
+            long previous = Math.max(delay, 10 * MILLI);
+            delay = backoff.delayNanos(i, delay);
+            assertThat(delay).isBetween(10 * MILLI, Math.min(100 * MILLI, previous * 3));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_not_accept_shrinking_multiplier() throws Exception {
+        // when
+        Backoffs.exponential(Duration.ofMillis(100), 0.5);
+        // then an exception should be thrown
+    }
+
+    @Test(expected = InstantiationException.class)
+    public void should_not_be_possible_to_instantiate_helper_class() throws Exception {
+        // when
+        new Backoffs();
+        // then an exception should be thrown
+    }
+}
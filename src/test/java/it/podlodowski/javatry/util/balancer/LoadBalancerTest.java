@@ -0,0 +1,208 @@
+package it.podlodowski.javatry.util.balancer;
+
+import it.podlodowski.javatry.Try;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class LoadBalancerTest {
+
+    @Test
+    public void should_move_retries_to_next_alternative() throws Exception {
+        // given
+        List<String> called = new ArrayList<>();
+        Callable<String> failing = () -> {
+            called.add("first");
+            throw new IllegalStateException();
+        };
+        Callable<String> working = () -> {
+            called.add("second");
+            return "magic";
+        };
+
+        // when
+        String result = Try.any(LoadBalancer.of(Arrays.asList(failing, working), LoadBalancer.Strategy.FAILOVER))
+                .orThrow();
+
+        // then
+        assertThat(result).isEqualTo("magic");
+        assertThat(called).containsExactly("first", "second");
+    }
+
+    @Test
+    public void should_eject_failed_alternative_for_subsequent_calls() throws Exception {
+        // given
+        AtomicInteger primaryCalls = new AtomicInteger();
+        LoadBalancer<String> loadBalancer = LoadBalancer.of(Arrays.asList(() -> {
+            primaryCalls.incrementAndGet();
+            throw new IllegalStateException();
+        }, () -> "secondary"), LoadBalancer.Strategy.FAILOVER);
+
+        // when
+        Try.any(loadBalancer).times(2).orThrow();
+        String result = Try.any(loadBalancer).orThrow();
+
+        // then
+        assertThat(result).isEqualTo("secondary");
+        assertThat(primaryCalls.get()).isEqualTo(1);
+        assertThat(loadBalancer.getHealthyCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_return_ejected_alternative_after_outlier_period() throws Exception {
+        // given
+        AtomicInteger primaryCalls = new AtomicInteger();
+        LoadBalancer<String> loadBalancer = LoadBalancer.<String>builder(Arrays.asList(() -> {
+            if (primaryCalls.incrementAndGet() == 1) {
+                throw new IllegalStateException();
+            }
+            return "primary";
+        }, () -> "secondary")).strategy(LoadBalancer.Strategy.FAILOVER).ejectFor(Duration.ofMillis(50)).build();
+
+        // when
+        Try.any(loadBalancer).times(2).orThrow();
+        Thread.sleep(100);
+        String result = Try.any(loadBalancer).orThrow();
+
+        // then
+        assertThat(result).isEqualTo("primary");
+        assertThat(loadBalancer.getHealthyCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void should_rotate_alternatives_round_robin() throws Exception {
+        // given
+        LoadBalancer<String> loadBalancer = LoadBalancer.of(Arrays.asList(() -> "a", () -> "b", () -> "c"),
+                LoadBalancer.Strategy.ROUND_ROBIN);
+
+        // when
+        List<String> results = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            results.add(loadBalancer.call());
+        }
+
+        // then
+        assertThat(results).containsExactly("a", "b", "c", "a", "b", "c");
+    }
+
+    @Test
+    public void should_prefer_alternative_with_least_outstanding_calls() throws Exception {
+        // given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        LoadBalancer<String> loadBalancer = LoadBalancer.of(Arrays.asList(() -> {
+            started.countDown();
+            release.await();
+            return "slow";
+        }, () -> "fast"), LoadBalancer.Strategy.LEAST_OUTSTANDING);
+        Thread blocked = new Thread(() -> {
+            try {
+                loadBalancer.call();
+            } catch (Exception ignored) {
+            }
+        });
+        blocked.start();
+        assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+
+        // when
+        List<String> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            results.add(loadBalancer.call());
+        }
+        release.countDown();
+        blocked.join();
+
+        // then
+        assertThat(results).containsOnly("fast");
+    }
+
+    @Test
+    public void should_prefer_alternative_with_lower_latency() throws Exception {
+        // given
+        AtomicInteger fastCalls = new AtomicInteger();
+        LoadBalancer<String> loadBalancer = LoadBalancer.of(Arrays.asList(() -> {
+            Thread.sleep(20);
+            return "slow";
+        }, () -> {
+            fastCalls.incrementAndGet();
+            return "fast";
+        }), LoadBalancer.Strategy.LATENCY_WEIGHTED);
+
+        // when
+        for (int i = 0; i < 10; i++) {
+            loadBalancer.call();
+        }
+
+        // then
+        assertThat(fastCalls.get()).isGreaterThanOrEqualTo(8);
+    }
+
+    @Test
+    public void should_use_ejected_alternative_when_none_is_healthy() throws Exception {
+        // given
+        AtomicInteger calls = new AtomicInteger();
+        LoadBalancer<String> loadBalancer = LoadBalancer.of(Arrays.asList(() -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new IllegalStateException();
+            }
+            return "recovered";
+        }), LoadBalancer.Strategy.ROUND_ROBIN);
+
+        // when
+        String result = Try.any(loadBalancer).times(2).orThrow();
+
+        // then
+        assertThat(result).isEqualTo("recovered");
+    }
+
+    @Test
+    public void should_keep_rotating_across_tries_sharing_load_balancer() throws Exception {
+        // given
+        LoadBalancer<String> loadBalancer = LoadBalancer.of(Arrays.asList(() -> "a", () -> "b", () -> "c"),
+                LoadBalancer.Strategy.ROUND_ROBIN);
+
+        // when
+        List<String> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            results.add(Try.any(loadBalancer).orThrow());
+        }
+
+        // then
+        assertThat(results).containsExactly("a", "b", "c");
+    }
+
+    @Test
+    public void should_eject_only_on_matching_exceptions() throws Exception {
+        // given
+        LoadBalancer<String> loadBalancer = LoadBalancer.<String>builder(Arrays.asList(() -> {
+            throw new IllegalArgumentException();
+        }, () -> "secondary"))
+                .strategy(LoadBalancer.Strategy.FAILOVER)
+                .ejectOn(e -> !(e instanceof IllegalArgumentException))
+                .build();
+
+        // when
+        Throwable thrown = catchThrowable(() -> Try.any(loadBalancer).abortOn(IllegalArgumentException.class).orThrow());
+
+        // then
+        assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
+        assertThat(loadBalancer.getHealthyCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void should_reject_empty_alternatives() {
+        assertThatThrownBy(() -> LoadBalancer.builder(new ArrayList<Callable<String>>()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,96 @@
+package it.podlodowski.javatry.util.budget;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RetryBudgetTest {
+
+    @Test
+    public void should_allow_retries_up_to_ratio_of_first_attempts() throws Exception {
+        // given
+        RetryBudget retryBudget = RetryBudget.builder().retryRatio(0.1).minRetriesPerSecond(0).build();
+
+        // when
+        for (int i = 0; i < 100; i++) {
+            retryBudget.onFirstAttempt();
+        }
+
+        // then
+        for (int i = 0; i < 10; i++) {
+            assertThat(retryBudget.tryAcquireRetry()).isTrue();
+        }
+        assertThat(retryBudget.tryAcquireRetry()).isFalse();
+    }
+
+    @Test
+    public void should_allow_minimum_retries_without_traffic() throws Exception {
+        // given
+        RetryBudget retryBudget = RetryBudget.builder()
+                .retryRatio(0.1).minRetriesPerSecond(1).window(Duration.ofSeconds(3)).build();
+
+        // then
+        assertThat(retryBudget.tryAcquireRetry()).isTrue();
+        assertThat(retryBudget.tryAcquireRetry()).isTrue();
+        assertThat(retryBudget.tryAcquireRetry()).isTrue();
+        assertThat(retryBudget.tryAcquireRetry()).isFalse();
+    }
+
+    @Test
+    public void should_forget_attempts_outside_window() throws Exception {
+        // given
+        RetryBudget retryBudget = RetryBudget.builder()
+                .retryRatio(1).minRetriesPerSecond(0).window(Duration.ofMillis(100)).build();
+        retryBudget.onFirstAttempt();
+
+        // when
+        Thread.sleep(200);
+
+        // then
+        assertThat(retryBudget.tryAcquireRetry()).isFalse();
+    }
+
+    @Test
+    public void should_cap_retries_when_shared_between_threads() throws Exception {
+        // given
+        RetryBudget retryBudget = RetryBudget.builder().retryRatio(0.1).minRetriesPerSecond(0).build();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        AtomicInteger granted = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        // when
+        for (int i = 0; i < 8; i++) {
+            futures.add(executor.submit(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    retryBudget.onFirstAttempt();
+                    for (int k = 0; k < 5 && retryBudget.tryAcquireRetry(); k++) {
+                        granted.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // then
+        assertThat(granted.get()).isBetween(1, 800 + 8);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_not_accept_negative_ratio() throws Exception {
+        // when
+        RetryBudget.of(-0.1);
+        // then an exception should be thrown
+    }
+}
@@ -0,0 +1,220 @@
+package it.podlodowski.javatry.util.bulkhead;
+
+import it.podlodowski.javatry.Try;
+import it.podlodowski.javatry.util.circuitbreaker.CircuitBreaker;
+import it.podlodowski.javatry.util.metrics.RetryListener;
+import it.podlodowski.javatry.util.scheduler.Schedulers;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class BulkheadTest {
+
+    @Test
+    public void should_reject_calls_over_fixed_limit() throws Exception {
+        // given
+        Bulkhead bulkhead = Bulkhead.of(2);
+
+        // when
+        boolean first = bulkhead.tryAcquirePermission();
+        boolean second = bulkhead.tryAcquirePermission();
+        boolean third = bulkhead.tryAcquirePermission();
+
+        // then
+        assertThat(first).isTrue();
+        assertThat(second).isTrue();
+        assertThat(third).isFalse();
+        assertThat(bulkhead.getInFlight()).isEqualTo(2);
+    }
+
+    @Test
+    public void should_permit_again_after_release() throws Exception {
+        // given
+        Bulkhead bulkhead = Bulkhead.of(1);
+        bulkhead.tryAcquirePermission();
+
+        // when
+        bulkhead.onComplete(TimeUnit.MILLISECONDS.toNanos(5), true);
+
+        // then
+        assertThat(bulkhead.tryAcquirePermission()).isTrue();
+        assertThat(bulkhead.getLimit()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_hand_released_permit_to_waiting_call() throws Exception {
+        // given
+        Bulkhead bulkhead = Bulkhead.builder().maxConcurrentCalls(1).maxWaitingCalls(1).withExecutor(Runnable::run)
+                .build();
+        AtomicInteger permitted = new AtomicInteger();
+        bulkhead.tryAcquirePermission();
+
+        // when
+        boolean queued = bulkhead.offer(permitted::incrementAndGet);
+        boolean rejected = bulkhead.offer(permitted::incrementAndGet);
+        int permittedBeforeRelease = permitted.get();
+        bulkhead.release();
+
+        // then
+        assertThat(queued).isTrue();
+        assertThat(rejected).isFalse();
+        assertThat(permittedBeforeRelease).isZero();
+        assertThat(permitted.get()).isEqualTo(1);
+        assertThat(bulkhead.getInFlight()).isEqualTo(1);
+        assertThat(bulkhead.getWaiting()).isZero();
+    }
+
+    @Test
+    public void should_run_waiting_call_on_executor_instead_of_releasing_thread() throws Exception {
+        // given
+        ExecutorService executor = Executors.newSingleThreadExecutor(Schedulers.daemonThreadFactory("bulkhead-worker"));
+        Bulkhead bulkhead = Bulkhead.builder().maxConcurrentCalls(1).maxWaitingCalls(1).withExecutor(executor).build();
+        AtomicReference<String> thread = new AtomicReference<>();
+        CountDownLatch permitted = new CountDownLatch(1);
+        bulkhead.tryAcquirePermission();
+        bulkhead.offer(() -> {
+            thread.set(Thread.currentThread().getName());
+            permitted.countDown();
+        });
+
+        // when
+        bulkhead.release();
+
+        // then
+        assertThat(permitted.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(thread.get()).startsWith("bulkhead-worker");
+        executor.shutdown();
+    }
+
+    @Test
+    public void should_not_shrink_limit_on_application_failures() throws Exception {
+        // given
+        Bulkhead bulkhead = Bulkhead.builder().initialLimit(10).limitRange(1, 20)
+                .aimd(Duration.ofSeconds(1), 0.5).build();
+
+        // when
+        for (int i = 0; i < 5; i++) {
+            Try.it(() -> {
+                throw new IllegalStateException("not found");
+            }).withBulkhead(bulkhead).now();
+        }
+
+        // then
+        assertThat(bulkhead.getLimit()).isGreaterThanOrEqualTo(10);
+    }
+
+    @Test
+    public void should_shrink_limit_on_attempt_timeouts() throws Exception {
+        // given
+        Bulkhead bulkhead = Bulkhead.builder().initialLimit(10).limitRange(1, 20)
+                .aimd(Duration.ofSeconds(1), 0.5).build();
+
+        // when
+        Try.it(() -> {
+            Thread.sleep(1_000);
+            return "late";
+        }).withBulkhead(bulkhead).attemptTimeout(Duration.ofMillis(10)).now();
+
+        // then
+        assertThat(bulkhead.getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    public void should_decrease_aimd_limit_on_slow_calls_and_grow_it_back() throws Exception {
+        // given
+        Bulkhead bulkhead = Bulkhead.builder().initialLimit(10).limitRange(1, 20)
+                .aimd(Duration.ofMillis(100), 0.5).build();
+
+        // when
+        bulkhead.tryAcquirePermission();
+        bulkhead.onComplete(TimeUnit.MILLISECONDS.toNanos(500), true);
+        int afterSlowCall = bulkhead.getLimit();
+        for (int i = 0; i < 50; i++) {
+            for (int j = 0; j < bulkhead.getLimit(); j++) {
+                bulkhead.tryAcquirePermission();
+            }
+            bulkhead.onComplete(TimeUnit.MILLISECONDS.toNanos(5), true);
+        }
+
+        // then
+        assertThat(afterSlowCall).isEqualTo(5);
+        assertThat(bulkhead.getLimit()).isGreaterThan(afterSlowCall);
+    }
+
+    @Test
+    public void should_decrease_gradient_limit_when_latency_grows() throws Exception {
+        // given
+        Bulkhead bulkhead = Bulkhead.builder().initialLimit(20).limitRange(1, 100).gradient().build();
+        for (int i = 0; i < 20; i++) {
+            bulkhead.tryAcquirePermission();
+        }
+
+        // when
+        bulkhead.onComplete(TimeUnit.MILLISECONDS.toNanos(10), true);
+        bulkhead.tryAcquirePermission();
+        for (int i = 0; i < 20; i++) {
+            bulkhead.onComplete(TimeUnit.MILLISECONDS.toNanos(100), true);
+            bulkhead.tryAcquirePermission();
+        }
+
+        // then
+        assertThat(bulkhead.getLimit()).isLessThan(20);
+    }
+
+    @Test
+    public void should_release_permit_when_listener_throws() throws Exception {
+        // given
+        Bulkhead bulkhead = Bulkhead.of(1);
+        RetryListener listener = new RetryListener() {
+            @Override
+            public void onAttemptStart(String name, int attempt) {
+                throw new IllegalStateException("listener failure");
+            }
+        };
+
+        // when
+        Throwable thrown = catchThrowable(() -> Try.it(() -> "magic").withBulkhead(bulkhead).withListener(listener)
+                .orThrow());
+
+        // then
+        assertThat(thrown).isInstanceOf(IllegalStateException.class);
+        assertThat(bulkhead.getInFlight()).isZero();
+    }
+
+    @Test
+    public void should_not_take_circuit_breaker_permit_when_full() throws Exception {
+        // given
+        Bulkhead bulkhead = Bulkhead.of(1);
+        CircuitBreaker circuitBreaker = CircuitBreaker.builder()
+                .minimumNumberOfCalls(1)
+                .waitInOpenState(Duration.ofMillis(1))
+                .build();
+        bulkhead.tryAcquirePermission();
+        circuitBreaker.onFailure();
+        TimeUnit.MILLISECONDS.sleep(10);
+
+        // when
+        Throwable thrown = catchThrowable(() -> Try.it(() -> "magic").withBulkhead(bulkhead)
+                .withCircuitBreaker(circuitBreaker).orThrow());
+
+        // then
+        assertThat(thrown).isInstanceOf(BulkheadFullException.class);
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_reject_initial_limit_outside_range() throws Exception {
+        // when
+        Bulkhead.builder().initialLimit(50).limitRange(1, 10).build();
+        // then an exception should be thrown
+    }
+}
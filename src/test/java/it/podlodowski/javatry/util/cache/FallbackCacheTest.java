@@ -0,0 +1,134 @@
+package it.podlodowski.javatry.util.cache;
+
+import it.podlodowski.javatry.Try;
+import it.podlodowski.javatry.util.retry.RetryPolicy;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class FallbackCacheTest {
+
+    private final FallbackCache<String, String> cache = FallbackCache.create(10);
+
+    @Test
+    public void should_return_last_known_good_value_when_all_attempts_fail() throws Exception {
+        // given
+        Try.it(() -> "magic").withFallbackCache(cache, "flags", Duration.ofMinutes(1)).orThrow();
+        List<Exception> consumed = new ArrayList<>();
+
+        // when
+        String result = Try.<String>it(() -> {
+            throw new IllegalStateException();
+        }).times(2).onException(consumed::add).withFallbackCache(cache, "flags", Duration.ofMinutes(1)).now()
+                .orElse(null);
+
+        // then
+        assertThat(result).isEqualTo("magic");
+        assertThat(consumed).isEmpty();
+    }
+
+    @Test
+    public void should_fail_when_last_known_good_value_is_too_stale() throws Exception {
+        // given
+        Try.it(() -> "magic").withFallbackCache(cache, "flags", Duration.ofMillis(10)).orThrow();
+        Thread.sleep(50);
+
+        // when / then
+        assertThatThrownBy(() -> Try.<String>it(() -> {
+            throw new IllegalStateException();
+        }).withFallbackCache(cache, "flags", Duration.ofMillis(10)).orThrow())
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void should_pass_failure_to_consumer_when_nothing_is_cached() {
+        // given
+        List<Exception> consumed = new ArrayList<>();
+
+        // when
+        boolean present = Try.<String>it(() -> {
+            throw new IllegalStateException();
+        }).onException(consumed::add).withFallbackCache(cache, "pricing", Duration.ofMinutes(1)).now().isPresent();
+
+        // then
+        assertThat(present).isFalse();
+        assertThat(consumed).hasOnlyElementsOfType(IllegalStateException.class);
+    }
+
+    @Test
+    public void should_serve_stale_value_and_refresh_it_in_background() throws Exception {
+        // given
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch refreshed = new CountDownLatch(1);
+        cache.getOrThrow("flags", () -> "v" + loads.incrementAndGet(), RetryPolicy.builder().build(),
+                Duration.ofMinutes(1), null);
+        Thread.sleep(20);
+
+        // when
+        String stale = Try.it(() -> {
+            String value = "v" + loads.incrementAndGet();
+            refreshed.countDown();
+            return value;
+        }).withFallbackCache(cache, "flags", Duration.ofMinutes(1)).staleWhileRevalidate(Duration.ofMillis(10))
+                .orThrow();
+
+        // then
+        assertThat(stale).isEqualTo("v1");
+        assertThat(refreshed.await(1, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(50);
+        assertThat(cache.getOrThrow("flags", () -> "v" + loads.incrementAndGet(), RetryPolicy.builder().build(),
+                Duration.ofMinutes(1), Duration.ofMinutes(1))).isEqualTo("v2");
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void should_refresh_stale_value_only_once_at_a_time() throws Exception {
+        // given
+        AtomicInteger refreshes = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        cache.getOrThrow("flags", () -> "v0", RetryPolicy.builder().build(), Duration.ofMinutes(1), null);
+        Thread.sleep(20);
+
+        // when
+        for (int i = 0; i < 5; i++) {
+            cache.getOrThrow("flags", () -> {
+                refreshes.incrementAndGet();
+                started.countDown();
+                release.await();
+                return "v1";
+            }, RetryPolicy.builder().build(), Duration.ofMinutes(1), Duration.ofMillis(10));
+        }
+
+        // then
+        assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(refreshes.get()).isEqualTo(1);
+        release.countDown();
+    }
+
+    @Test
+    public void should_evict_oldest_values_when_full() throws Exception {
+        // given
+        RetryPolicy policy = RetryPolicy.builder().build();
+
+        // when
+        for (int i = 0; i < 11; i++) {
+            String value = "v" + i;
+            cache.getOrThrow("key" + i, () -> value, policy, Duration.ofMinutes(1), null);
+        }
+
+        // then
+        assertThat(cache.size()).isLessThanOrEqualTo(10);
+        assertThatThrownBy(() -> cache.getOrThrow("key0", () -> {
+            throw new IllegalStateException();
+        }, policy, Duration.ofMinutes(1), null)).isInstanceOf(IllegalStateException.class);
+    }
+}
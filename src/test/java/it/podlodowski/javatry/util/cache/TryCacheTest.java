@@ -0,0 +1,230 @@
+package it.podlodowski.javatry.util.cache;
+
+import it.podlodowski.javatry.util.retry.RetryPolicy;
+import it.podlodowski.javatry.util.test.MagicException;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.assertj.core.api.Assertions.fail;
+
+public class TryCacheTest {
+
+    @Test
+    public void should_share_one_retry_sequence_between_concurrent_callers() throws Exception {
+        // given
+        TryCache<String, String> cache = TryCache.coalescing(RetryPolicy.builder().times(3).build());
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<String>> results = new ArrayList<>();
+
+        // when
+        for (int i = 0; i < 8; i++) {
+            results.add(executor.submit(() -> cache.get("config", () -> {
+                if (calls.incrementAndGet() == 1) {
+                    throw new MagicException();
+                }
+                release.await(1, TimeUnit.SECONDS);
+                return "value";
+            })));
+        }
+        Thread.sleep(100);
+        release.countDown();
+
+        // then
+        for (Future<String> result : results) {
+            assertThat(result.get(1, TimeUnit.SECONDS)).isEqualTo("value");
+        }
+        assertThat(calls.get()).isEqualTo(2);
+        assertThat(cache.size()).isZero();
+        executor.shutdown();
+    }
+
+    @Test
+    public void should_cache_successful_result_until_ttl_expires() throws Exception {
+        // given
+        TryCache<String, Integer> cache = TryCache.builder().ttl(Duration.ofMillis(100)).build();
+        AtomicInteger calls = new AtomicInteger();
+
+        // when
+        int first = cache.get("key", calls::incrementAndGet);
+        int cached = cache.get("key", calls::incrementAndGet);
+        Thread.sleep(150);
+        int reloaded = cache.get("key", calls::incrementAndGet);
+
+        // then
+        assertThat(first).isEqualTo(1);
+        assertThat(cached).isEqualTo(1);
+        assertThat(reloaded).isEqualTo(2);
+    }
+
+    @Test
+    public void should_cache_failure_for_negative_ttl() throws Exception {
+        // given
+        TryCache<String, String> cache = TryCache.builder().negativeTtl(Duration.ofSeconds(10)).build();
+        AtomicInteger calls = new AtomicInteger();
+
+        // when
+        for (int i = 0; i < 3; i++) {
+            try {
+                cache.get("key", () -> {
+                    calls.incrementAndGet();
+                    throw new MagicException();
+                });
+                fail("exception expected");
+            } catch (MagicException e) {
+                // expected
+            }
+        }
+
+        // then
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_not_cache_failure_by_default() throws Exception {
+        // given
+        TryCache<String, String> cache = TryCache.builder().ttl(Duration.ofSeconds(10)).build();
+        AtomicInteger calls = new AtomicInteger();
+
+        // when
+        try {
+            cache.get("key", () -> {
+                calls.incrementAndGet();
+                throw new MagicException();
+            });
+        } catch (MagicException e) {
+            // expected
+        }
+        String value = cache.get("key", () -> "value");
+
+        // then
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(value).isEqualTo("value");
+    }
+
+    @Test
+    public void should_release_key_when_loader_throws_error() throws Exception {
+        // given
+        TryCache<String, String> cache = TryCache.builder().ttl(Duration.ofSeconds(10)).build();
+
+        // when
+        Throwable thrown = catchThrowable(() -> cache.get("key", () -> {
+            throw new AssertionError("magic went wrong");
+        }));
+        String value = cache.get("key", () -> "value");
+
+        // then
+        assertThat(thrown).isInstanceOf(AssertionError.class);
+        assertThat(value).isEqualTo("value");
+    }
+
+    @Test
+    public void should_complete_future_when_loader_throws_error() throws Exception {
+        // given
+        TryCache<String, String> cache = TryCache.builder().ttl(Duration.ofSeconds(10)).build();
+
+        // when
+        CompletableFuture<String> future = cache.future("key", () -> {
+            throw new AssertionError("magic went wrong");
+        });
+
+        // then
+        assertThatThrownBy(() -> future.get(1, TimeUnit.SECONDS)).hasCauseInstanceOf(AssertionError.class);
+    }
+
+    @Test
+    public void should_reload_future_after_failed_load() throws Exception {
+        // given
+        TryCache<String, String> cache = TryCache.builder().ttl(Duration.ofSeconds(10)).build();
+
+        // when
+        CompletableFuture<String> failed = cache.future("key", () -> {
+            throw new MagicException();
+        });
+        Throwable thrown = catchThrowable(() -> failed.get(1, TimeUnit.SECONDS));
+        String value = cache.future("key", () -> "value").get(1, TimeUnit.SECONDS);
+
+        // then
+        assertThat(thrown).hasCauseInstanceOf(MagicException.class);
+        assertThat(value).isEqualTo("value");
+    }
+
+    @Test
+    public void should_cache_failed_future_for_negative_ttl() throws Exception {
+        // given
+        TryCache<String, String> cache = TryCache.builder().negativeTtl(Duration.ofSeconds(10)).build();
+        AtomicInteger calls = new AtomicInteger();
+
+        // when
+        for (int i = 0; i < 3; i++) {
+            CompletableFuture<String> future = cache.future("key", () -> {
+                calls.incrementAndGet();
+                throw new MagicException();
+            });
+            assertThatThrownBy(() -> future.get(1, TimeUnit.SECONDS)).hasCauseInstanceOf(MagicException.class);
+        }
+
+        // then
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_coalesce_futures() throws Exception {
+        // given
+        TryCache<String, String> cache = TryCache.builder().ttl(Duration.ofSeconds(10)).build();
+        AtomicInteger calls = new AtomicInteger();
+
+        // when
+        CompletableFuture<String> first = cache.future("key", () -> "value-" + calls.incrementAndGet());
+        CompletableFuture<String> second = cache.future("key", () -> "value-" + calls.incrementAndGet());
+
+        // then
+        assertThat(first.get(1, TimeUnit.SECONDS)).isEqualTo("value-1");
+        assertThat(second.get(1, TimeUnit.SECONDS)).isEqualTo("value-1");
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_evict_entries_over_maximum_size() throws Exception {
+        // given
+        TryCache<Integer, Integer> cache = TryCache.builder().ttl(Duration.ofSeconds(10)).maximumSize(8).build();
+
+        // when
+        for (int i = 0; i < 100; i++) {
+            int value = i;
+            cache.get(i, () -> value);
+        }
+
+        // then
+        assertThat(cache.size()).isLessThanOrEqualTo(8);
+    }
+
+    @Test
+    public void should_reload_after_invalidation() throws Exception {
+        // given
+        TryCache<String, Integer> cache = TryCache.builder().ttl(Duration.ofSeconds(10)).build();
+        AtomicInteger calls = new AtomicInteger();
+        cache.get("key", calls::incrementAndGet);
+
+        // when
+        cache.invalidate("key");
+        int value = cache.get("key", calls::incrementAndGet);
+
+        // then
+        assertThat(value).isEqualTo(2);
+    }
+}
@@ -0,0 +1,219 @@
+package it.podlodowski.javatry.util.circuitbreaker;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static it.podlodowski.javatry.util.circuitbreaker.CircuitBreaker.State.CLOSED;
+import static it.podlodowski.javatry.util.circuitbreaker.CircuitBreaker.State.HALF_OPEN;
+import static it.podlodowski.javatry.util.circuitbreaker.CircuitBreaker.State.OPEN;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CircuitBreakerTest {
+
+    @Test
+    public void should_be_closed_initially() throws Exception {
+        // when
+        CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults();
+
+        // then
+        assertThat(circuitBreaker.getState()).isEqualTo(CLOSED);
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+    }
+
+    @Test
+    public void should_not_open_before_minimum_number_of_calls() throws Exception {
+        // given
+        CircuitBreaker circuitBreaker = CircuitBreaker.builder().minimumNumberOfCalls(5).build();
+
+        // when
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.onFailure();
+        }
+
+        // then
+        assertThat(circuitBreaker.getState()).isEqualTo(CLOSED);
+    }
+
+    @Test
+    public void should_open_when_failure_rate_exceeds_threshold() throws Exception {
+        // given
+        CircuitBreaker circuitBreaker = CircuitBreaker.builder()
+                .minimumNumberOfCalls(4).failureRateThreshold(0.5).build();
+
+        // when
+        circuitBreaker.onSuccess();
+        circuitBreaker.onSuccess();
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+
+        // then
+        assertThat(circuitBreaker.getState()).isEqualTo(OPEN);
+        assertThat(circuitBreaker.tryAcquirePermission()).isFalse();
+    }
+
+    @Test
+    public void should_stay_closed_when_failure_rate_below_threshold() throws Exception {
+        // given
+        CircuitBreaker circuitBreaker = CircuitBreaker.builder()
+                .minimumNumberOfCalls(4).failureRateThreshold(0.5).build();
+
+        // when
+        circuitBreaker.onSuccess();
+        circuitBreaker.onSuccess();
+        circuitBreaker.onSuccess();
+        circuitBreaker.onFailure();
+
+        // then
+        assertThat(circuitBreaker.getState()).isEqualTo(CLOSED);
+    }
+
+    @Test
+    public void should_forget_failures_outside_sliding_window() throws Exception {
+        // given
+        CircuitBreaker circuitBreaker = CircuitBreaker.builder()
+                .minimumNumberOfCalls(2).slidingWindow(Duration.ofMillis(100)).build();
+
+        // when
+        circuitBreaker.onFailure();
+        Thread.sleep(200);
+        circuitBreaker.onSuccess();
+        circuitBreaker.onSuccess();
+        circuitBreaker.onFailure();
+
+        // then
+        assertThat(circuitBreaker.getState()).isEqualTo(CLOSED);
+    }
+
+    @Test
+    public void should_let_limited_calls_through_when_half_open() throws Exception {
+        // given
+        CircuitBreaker circuitBreaker = openCircuitBreaker(Duration.ofMillis(50), 2);
+
+        // when
+        Thread.sleep(100);
+
+        // then
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+        assertThat(circuitBreaker.getState()).isEqualTo(HALF_OPEN);
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+        assertThat(circuitBreaker.tryAcquirePermission()).isFalse();
+    }
+
+    @Test
+    public void should_return_released_permit_when_half_open() throws Exception {
+        // given
+        CircuitBreaker circuitBreaker = openCircuitBreaker(Duration.ofMillis(50), 1);
+        Thread.sleep(100);
+        circuitBreaker.tryAcquirePermission();
+
+        // when
+        circuitBreaker.releasePermission();
+        circuitBreaker.releasePermission();
+
+        // then
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+        assertThat(circuitBreaker.tryAcquirePermission()).isFalse();
+    }
+
+    @Test
+    public void should_close_after_successful_calls_when_half_open() throws Exception {
+        // given
+        CircuitBreaker circuitBreaker = openCircuitBreaker(Duration.ofMillis(50), 2);
+        Thread.sleep(100);
+
+        // when
+        circuitBreaker.tryAcquirePermission();
+        circuitBreaker.onSuccess();
+        circuitBreaker.tryAcquirePermission();
+        circuitBreaker.onSuccess();
+
+        // then
+        assertThat(circuitBreaker.getState()).isEqualTo(CLOSED);
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+    }
+
+    @Test
+    public void should_reopen_after_failed_call_when_half_open() throws Exception {
+        // given
+        CircuitBreaker circuitBreaker = openCircuitBreaker(Duration.ofMillis(50), 2);
+        Thread.sleep(100);
+
+        // when
+        circuitBreaker.tryAcquirePermission();
+        circuitBreaker.onFailure();
+
+        // then
+        assertThat(circuitBreaker.getState()).isEqualTo(OPEN);
+        assertThat(circuitBreaker.tryAcquirePermission()).isFalse();
+    }
+
+    @Test
+    public void should_open_once_when_shared_between_threads() throws Exception {
+        // given
+        CircuitBreaker circuitBreaker = CircuitBreaker.builder()
+                .minimumNumberOfCalls(100).waitInOpenState(Duration.ofMinutes(1)).build();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // when
+        for (int i = 0; i < 8; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < 1000; j++) {
+                    if (circuitBreaker.tryAcquirePermission()) {
+                        circuitBreaker.onFailure();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // then
+        assertThat(circuitBreaker.getState()).isEqualTo(OPEN);
+        assertThat(circuitBreaker.tryAcquirePermission()).isFalse();
+    }
+
+    @Test
+    public void should_close_on_reset() throws Exception {
+        // given
+        CircuitBreaker circuitBreaker = openCircuitBreaker(Duration.ofMinutes(1), 1);
+
+        // when
+        circuitBreaker.reset();
+
+        // then
+        assertThat(circuitBreaker.getState()).isEqualTo(CLOSED);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_not_accept_failure_rate_threshold_above_one() throws Exception {
+        // when
+        CircuitBreaker.builder().failureRateThreshold(1.5);
+        // then an exception should be thrown
+    }
+
+    private CircuitBreaker openCircuitBreaker(Duration waitInOpenState, int permittedCallsInHalfOpenState) {
+        CircuitBreaker circuitBreaker = CircuitBreaker.builder()
+                .minimumNumberOfCalls(1)
+                .waitInOpenState(waitInOpenState)
+                .permittedCallsInHalfOpenState(permittedCallsInHalfOpenState)
+                .build();
+        circuitBreaker.onFailure();
+        assertThat(circuitBreaker.getState()).isEqualTo(OPEN);
+        return circuitBreaker;
+    }
+}
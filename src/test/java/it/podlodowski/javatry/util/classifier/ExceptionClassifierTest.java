@@ -0,0 +1,72 @@
+package it.podlodowski.javatry.util.classifier;
+
+import org.junit.Test;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ExceptionClassifierTest {
+
+    private static final List<Class<? extends Exception>> NONE = Collections.emptyList();
+
+    @Test
+    public void should_retry_all_exceptions_by_default() throws Exception {
+        // given
+        ExceptionClassifier classifier = ExceptionClassifier.of(NONE, NONE, null);
+
+        // when
+        boolean retryable = classifier.isRetryable(new IOException());
+
+        // then
+        assertThat(classifier).isSameAs(ExceptionClassifier.retryAll());
+        assertThat(retryable).isTrue();
+    }
+
+    @Test
+    public void should_retry_only_subclasses_of_listed_exceptions() throws Exception {
+        // given
+        ExceptionClassifier classifier = ExceptionClassifier.of(Collections.singletonList(IOException.class), NONE, null);
+
+        // when
+        boolean subclass = classifier.isRetryable(new FileNotFoundException());
+        boolean other = classifier.isRetryable(new IllegalStateException());
+
+        // then
+        assertThat(subclass).isTrue();
+        assertThat(other).isFalse();
+    }
+
+    @Test
+    public void should_prefer_abort_over_retry() throws Exception {
+        // given
+        ExceptionClassifier classifier = ExceptionClassifier.of(
+                Collections.singletonList(IOException.class), Arrays.asList(FileNotFoundException.class), null);
+
+        // when
+        boolean aborted = classifier.isRetryable(new FileNotFoundException());
+        boolean retried = classifier.isRetryable(new IOException());
+
+        // then
+        assertThat(aborted).isFalse();
+        assertThat(retried).isTrue();
+    }
+
+    @Test
+    public void should_consult_predicate_for_retryable_types() throws Exception {
+        // given
+        ExceptionClassifier classifier = ExceptionClassifier.of(NONE, NONE, e -> e.getMessage() != null);
+
+        // when
+        boolean withMessage = classifier.isRetryable(new IOException("timeout"));
+        boolean withoutMessage = classifier.isRetryable(new IOException());
+
+        // then
+        assertThat(withMessage).isTrue();
+        assertThat(withoutMessage).isFalse();
+    }
+}
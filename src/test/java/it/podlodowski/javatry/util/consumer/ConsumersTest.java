@@ -3,6 +3,12 @@ package it.podlodowski.javatry.util.consumer;
 import it.podlodowski.javatry.util.consumer.Consumers;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
 public class ConsumersTest {
     @Test(expected = InstantiationException.class)
     public void should_not_be_possible_to_instantiate_helper_class() throws Exception {
@@ -10,4 +16,19 @@ public class ConsumersTest {
         new Consumers();
         // then an exception should be thrown
     }
-}
\ No newline at end of file
+
+    @Test
+    public void should_pass_only_every_nth_element_to_sampled_consumer() throws Exception {
+        // given
+        List<Integer> consumed = new ArrayList<>();
+        Consumer<Integer> sampled = Consumers.sampled(consumed::add, 3);
+
+        // when
+        for (int i = 0; i < 10; i++) {
+            sampled.accept(i);
+        }
+
+        // then
+        assertThat(consumed).containsExactly(0, 3, 6, 9);
+    }
+}
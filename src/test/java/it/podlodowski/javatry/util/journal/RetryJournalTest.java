@@ -0,0 +1,213 @@
+package it.podlodowski.javatry.util.journal;
+
+import it.podlodowski.javatry.util.backoff.Backoffs;
+import it.podlodowski.javatry.util.test.MagicException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class RetryJournalTest {
+
+    private Path directory;
+    private Path path;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("journal");
+        path = directory.resolve("retries.log");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        try (java.util.stream.Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> file.toFile().delete());
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    @Test
+    public void should_retry_task_until_handler_succeeds() throws Exception {
+        // given
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(1);
+
+        // when
+        try (RetryJournal journal = journal().build().register("webhook", payload -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new MagicException();
+            }
+            done.countDown();
+        }).start()) {
+            journal.submit("webhook", bytes("hello"));
+
+            // then
+            assertThat(done.await(1, TimeUnit.SECONDS)).isTrue();
+            Thread.sleep(50);
+            assertThat(journal.pending()).isZero();
+            assertThat(calls.get()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    public void should_retry_task_when_handler_throws_error() throws Exception {
+        // given
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(1);
+
+        // when
+        try (RetryJournal journal = journal().build().register("webhook", payload -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new AssertionError("magic went wrong");
+            }
+            done.countDown();
+        }).start()) {
+            journal.submit("webhook", bytes("hello"));
+
+            // then
+            assertThat(done.await(1, TimeUnit.SECONDS)).isTrue();
+            Thread.sleep(50);
+            assertThat(journal.pending()).isZero();
+            assertThat(calls.get()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    public void should_reject_type_longer_than_record_field() throws Exception {
+        // given
+        char[] type = new char[Short.MAX_VALUE + 1];
+        Arrays.fill(type, 'a');
+
+        // when
+        try (RetryJournal journal = journal().build().start()) {
+            Throwable thrown = catchThrowable(() -> journal.submit(new String(type), bytes("hello")));
+
+            // then
+            assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
+            assertThat(journal.pending()).isZero();
+        }
+    }
+
+    @Test
+    public void should_reload_pending_tasks_after_restart() throws Exception {
+        // given
+        try (RetryJournal journal = journal().withBackoff(Backoffs.fixed(Duration.ofHours(1))).build().start()) {
+            journal.submit("webhook", bytes("first"));
+            journal.submit("webhook", bytes("second"));
+        }
+        List<String> delivered = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(2);
+
+        // when
+        try (RetryJournal journal = journal().build().register("webhook", payload -> {
+            delivered.add(new String(payload, StandardCharsets.UTF_8));
+            done.countDown();
+        }).start()) {
+
+            // then
+            assertThat(done.await(1, TimeUnit.SECONDS)).isTrue();
+            assertThat(delivered).containsExactlyInAnyOrder("first", "second");
+        }
+    }
+
+    @Test
+    public void should_keep_attempt_count_and_fire_time_across_restarts() throws Exception {
+        // given
+        CountDownLatch failed = new CountDownLatch(1);
+        try (RetryJournal journal = journal().withBackoff(Backoffs.fixed(Duration.ofMillis(300))).build().register("webhook", payload -> {
+            failed.countDown();
+            throw new MagicException();
+        }).start()) {
+            journal.submit("webhook", bytes("hello"));
+            failed.await(1, TimeUnit.SECONDS);
+            Thread.sleep(50);
+        }
+        AtomicInteger calls = new AtomicInteger();
+        long restartedAt = System.currentTimeMillis();
+        CountDownLatch done = new CountDownLatch(1);
+        List<Long> firedAfter = new ArrayList<>();
+
+        // when
+        try (RetryJournal journal = journal().times(2).build().register("webhook", payload -> {
+            firedAfter.add(System.currentTimeMillis() - restartedAt);
+            calls.incrementAndGet();
+            done.countDown();
+            throw new MagicException();
+        }).start()) {
+
+            // then
+            assertThat(done.await(1, TimeUnit.SECONDS)).isTrue();
+            Thread.sleep(100);
+            assertThat(calls.get()).isEqualTo(1);
+            assertThat(firedAfter.get(0)).isGreaterThanOrEqualTo(150L);
+            assertThat(journal.pending()).isZero();
+        }
+    }
+
+    @Test
+    public void should_compact_log_of_finished_tasks() throws Exception {
+        // given
+        CountDownLatch done = new CountDownLatch(2_000);
+
+        // when
+        try (RetryJournal journal = journal().compactionThreshold(16 * 1024).build().register("webhook", payload -> done.countDown())
+                .start()) {
+            for (int i = 0; i < 2_000; i++) {
+                journal.submit("webhook", new byte[64]);
+            }
+            assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+            Thread.sleep(100);
+        }
+
+        // then
+        try (RetryJournal journal = journal().build().start()) {
+            assertThat(journal.pending()).isZero();
+        }
+        assertThat(Files.exists(path.resolveSibling(path.getFileName() + ".compact"))).isFalse();
+    }
+
+    @Test
+    public void should_ignore_torn_record_at_end_of_log() throws Exception {
+        // given
+        try (RetryJournal journal = journal().withBackoff(Backoffs.fixed(Duration.ofHours(1))).build().start()) {
+            journal.submit("webhook", bytes("first"));
+            journal.submit("webhook", bytes("second"));
+        }
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            int secondRecord = 8 + 1 + 8 + 4 + 8 + 2 + "webhook".length() + 4 + "first".length();
+            file.seek(secondRecord + 8 + 30);
+            file.write(0xFF);
+        }
+
+        // when
+        try (RetryJournal journal = journal().build().start()) {
+
+            // then
+            assertThat(journal.pending()).isEqualTo(1);
+        }
+    }
+
+    private RetryJournal.Builder journal() {
+        return RetryJournal.builder(path).initialCapacity(4096).withBackoff(Backoffs.none())
+                .syncInterval(Duration.ofMillis(10));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
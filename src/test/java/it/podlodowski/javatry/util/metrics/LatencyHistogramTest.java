@@ -0,0 +1,69 @@
+package it.podlodowski.javatry.util.metrics;
+
+import org.assertj.core.data.Offset;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void should_report_zero_when_empty() throws Exception {
+        // when
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // then
+        assertThat(histogram.count()).isZero();
+        assertThat(histogram.valueAtPercentile(99)).isZero();
+        assertThat(histogram.mean()).isZero();
+    }
+
+    @Test
+    public void should_record_small_values_exactly() throws Exception {
+        // given
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // when
+        for (int i = 1; i <= 20; i++) {
+            histogram.record(i);
+        }
+
+        // then
+        assertThat(histogram.count()).isEqualTo(20);
+        assertThat(histogram.valueAtPercentile(50)).isEqualTo(10);
+        assertThat(histogram.valueAtPercentile(100)).isEqualTo(20);
+        assertThat(histogram.max()).isEqualTo(20);
+        assertThat(histogram.mean()).isEqualTo(10.5);
+    }
+
+    @Test
+    public void should_keep_relative_error_bounded_for_large_values() throws Exception {
+        // given
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // when
+        for (long i = 1; i <= 1000; i++) {
+            histogram.record(i * 1_000_000L);
+        }
+
+        // then
+        assertThat((double) histogram.valueAtPercentile(50)).isCloseTo(500_000_000d, Offset.offset(500_000_000d / 16));
+        assertThat((double) histogram.valueAtPercentile(99)).isCloseTo(990_000_000d, Offset.offset(990_000_000d / 16));
+        assertThat(histogram.valueAtPercentile(100)).isEqualTo(1_000_000_000L);
+    }
+
+    @Test
+    public void should_map_every_value_to_bucket_containing_it() throws Exception {
+        // given
+        long[] values = {0, 1, 31, 32, 33, 63, 64, 1000, 123_456_789L, Long.MAX_VALUE};
+
+        // then
+        for (long value : values) {
+            int index = LatencyHistogram.index(value);
+            assertThat(LatencyHistogram.highestValue(index)).isGreaterThanOrEqualTo(value);
+            if (index > 0) {
+                assertThat(LatencyHistogram.highestValue(index - 1)).isLessThan(value);
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package it.podlodowski.javatry.util.metrics;
+
+import it.podlodowski.javatry.Try;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RetryMetricsTest {
+
+    @Test
+    public void should_aggregate_attempts_per_name() throws Exception {
+        // given
+        RetryMetrics metrics = new RetryMetrics();
+
+        // when
+        metrics.onAttemptStart("db", 1);
+        metrics.onAttemptEnd("db", 1, 100, new IllegalStateException());
+        metrics.onDelay("db", 1, 50);
+        metrics.onAttemptStart("db", 2);
+        metrics.onAttemptEnd("db", 2, 200, null);
+        metrics.onAttemptStart("cache", 1);
+        metrics.onAttemptEnd("cache", 1, 10, null);
+
+        // then
+        RetryStats db = metrics.stats("db");
+        assertThat(db.attempts()).isEqualTo(2);
+        assertThat(db.failures()).isEqualTo(1);
+        assertThat(db.successes()).isEqualTo(1);
+        assertThat(db.retries()).isEqualTo(1);
+        assertThat(db.delayNanos()).isEqualTo(50);
+        assertThat(db.attemptLatency().max()).isEqualTo(200);
+        assertThat(metrics.stats("cache").attempts()).isEqualTo(1);
+        assertThat(metrics.all()).containsOnlyKeys("db", "cache");
+    }
+
+    @Test
+    public void should_aggregate_unnamed_attempts_together() throws Exception {
+        // given
+        RetryMetrics metrics = new RetryMetrics();
+
+        // when
+        metrics.onAttemptEnd(null, 1, 100, null);
+        metrics.onAttemptEnd(null, 1, 100, null);
+
+        // then
+        assertThat(metrics.stats(null).attempts()).isEqualTo(2);
+        assertThat(metrics.all()).containsOnlyKeys(RetryMetrics.UNNAMED);
+    }
+
+    @Test
+    public void should_count_retries_without_delay() throws Exception {
+        // given
+        RetryMetrics metrics = new RetryMetrics();
+        AtomicInteger calls = new AtomicInteger();
+
+        // when
+        Try.it(() -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new IllegalStateException();
+            }
+            return "value";
+        }).times(3).named("db").withListener(metrics).now();
+
+        // then
+        RetryStats db = metrics.stats("db");
+        assertThat(db.attempts()).isEqualTo(3);
+        assertThat(db.retries()).isEqualTo(2);
+        assertThat(db.delayNanos()).isZero();
+    }
+}
@@ -0,0 +1,43 @@
+package it.podlodowski.javatry.util.outcome;
+
+import it.podlodowski.javatry.util.test.MagicException;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OutcomeTest {
+
+    @Test
+    public void should_return_value_of_successful_outcome() throws Exception {
+        // given
+        Outcome<String> outcome = Outcome.success("value");
+
+        // when
+        String value = outcome.getOrThrow();
+
+        // then
+        assertThat(outcome.isSuccess()).isTrue();
+        assertThat(value).isEqualTo("value");
+    }
+
+    @Test
+    public void should_create_stackless_failure_from_reason() throws Exception {
+        // when
+        Outcome<String> outcome = Outcome.failure("unavailable");
+
+        // then
+        assertThat(outcome.isSuccess()).isFalse();
+        assertThat(outcome.getFailure()).isInstanceOf(FailedOutcomeException.class).hasMessage("unavailable");
+        assertThat(outcome.getFailure().getStackTrace()).isEmpty();
+    }
+
+    @Test(expected = MagicException.class)
+    public void should_throw_failure_of_failed_outcome() throws Exception {
+        // given
+        Outcome<String> outcome = Outcome.failure(new MagicException());
+
+        // when
+        outcome.getOrThrow();
+        // then an exception should be thrown
+    }
+}
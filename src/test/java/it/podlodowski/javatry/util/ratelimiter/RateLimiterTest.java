@@ -0,0 +1,174 @@
+package it.podlodowski.javatry.util.ratelimiter;
+
+import it.podlodowski.javatry.Try;
+import it.podlodowski.javatry.util.circuitbreaker.CircuitBreaker;
+import it.podlodowski.javatry.util.retry.RetryPolicy;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class RateLimiterTest {
+
+    @Test
+    public void should_permit_burst_and_then_reject() {
+        // given
+        RateLimiter rateLimiter = RateLimiter.builder()
+                .limitForPeriod(10, Duration.ofSeconds(1))
+                .burst(3)
+                .build();
+
+        // when / then
+        assertThat(rateLimiter.tryAcquirePermission()).isTrue();
+        assertThat(rateLimiter.tryAcquirePermission()).isTrue();
+        assertThat(rateLimiter.tryAcquirePermission()).isTrue();
+        assertThat(rateLimiter.tryAcquirePermission()).isFalse();
+    }
+
+    @Test
+    public void should_keep_burst_headroom_from_retries() {
+        // given
+        RateLimiter rateLimiter = RateLimiter.builder()
+                .limitForPeriod(10, Duration.ofSeconds(1))
+                .burst(3)
+                .retryBurst(1)
+                .build();
+
+        // when
+        rateLimiter.tryAcquirePermission();
+
+        // then
+        assertThat(rateLimiter.tryAcquirePermission(true)).isFalse();
+        assertThat(rateLimiter.tryAcquirePermission(false)).isTrue();
+    }
+
+    @Test
+    public void should_reserve_permission_in_the_future() {
+        // given
+        RateLimiter rateLimiter = RateLimiter.of(10, Duration.ofSeconds(1));
+
+        // when
+        long first = rateLimiter.reservePermission(false);
+        long second = rateLimiter.reservePermission(false);
+
+        // then
+        assertThat(first).isZero();
+        assertThat(second).isBetween(TimeUnit.MILLISECONDS.toNanos(90), TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    @Test
+    public void should_not_reserve_beyond_max_wait() throws Exception {
+        // given
+        RateLimiter rateLimiter = RateLimiter.builder()
+                .limitForPeriod(1, Duration.ofSeconds(1))
+                .maxWait(Duration.ofMillis(100))
+                .build();
+
+        // when
+        rateLimiter.acquirePermission(false);
+
+        // then
+        assertThat(rateLimiter.reservePermission(false)).isEqualTo(RateLimiter.NOT_PERMITTED);
+        assertThatThrownBy(() -> rateLimiter.acquirePermission(false)).isInstanceOf(RateLimitExceededException.class);
+    }
+
+    @Test
+    public void should_space_synchronous_attempts_and_retries() throws Exception {
+        // given
+        RateLimiter rateLimiter = RateLimiter.of(20, Duration.ofSeconds(1));
+        AtomicInteger attempts = new AtomicInteger();
+        long startTime = System.nanoTime();
+
+        // when
+        Integer result = Try.it(() -> {
+            if (attempts.incrementAndGet() < 4) {
+                throw new IllegalStateException();
+            }
+            return attempts.get();
+        }).times(5).withRateLimiter(rateLimiter).orThrow();
+
+        // then
+        assertThat(result).isEqualTo(4);
+        assertThat(System.nanoTime() - startTime).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(150));
+    }
+
+    @Test
+    public void should_schedule_future_attempts_when_permits_are_available() throws Exception {
+        // given
+        RateLimiter rateLimiter = RateLimiter.of(20, Duration.ofSeconds(1));
+        RetryPolicy policy = RetryPolicy.builder().withRateLimiter(rateLimiter).build();
+        List<Long> starts = new CopyOnWriteArrayList<>();
+
+        // when
+        List<CompletableFuture<Long>> futures = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            futures.add(policy.future(() -> {
+                long now = System.nanoTime();
+                starts.add(now);
+                return now;
+            }));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(1, TimeUnit.SECONDS);
+
+        // then
+        starts.sort(Long::compare);
+        assertThat(starts.get(3) - starts.get(0)).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    @Test
+    public void should_fail_future_when_rate_limit_exceeded() throws Exception {
+        // given
+        RateLimiter rateLimiter = RateLimiter.builder()
+                .limitForPeriod(1, Duration.ofSeconds(10))
+                .maxWait(Duration.ZERO)
+                .build();
+        List<Exception> consumed = new CopyOnWriteArrayList<>();
+        rateLimiter.tryAcquirePermission();
+
+        // when
+        CompletableFuture<String> future = Try.it(() -> "magic").withRateLimiter(rateLimiter)
+                .onException(consumed::add).future();
+
+        // then
+        assertThat(future.get(1, TimeUnit.SECONDS)).isNull();
+        assertThat(consumed).hasOnlyElementsOfType(RateLimitExceededException.class);
+    }
+
+    @Test
+    public void should_not_take_half_open_circuit_breaker_permit_when_rate_limit_exceeded() throws Exception {
+        // given
+        RateLimiter rateLimiter = RateLimiter.builder()
+                .limitForPeriod(1, Duration.ofSeconds(10))
+                .maxWait(Duration.ZERO)
+                .build();
+        CircuitBreaker circuitBreaker = CircuitBreaker.builder()
+                .minimumNumberOfCalls(1)
+                .waitInOpenState(Duration.ofMillis(1))
+                .build();
+        List<Exception> consumed = new CopyOnWriteArrayList<>();
+        rateLimiter.tryAcquirePermission();
+        circuitBreaker.onFailure();
+        TimeUnit.MILLISECONDS.sleep(10);
+
+        // when
+        Try.it(() -> "magic").withRateLimiter(rateLimiter).withCircuitBreaker(circuitBreaker)
+                .onException(consumed::add).now();
+
+        // then
+        assertThat(consumed).hasOnlyElementsOfType(RateLimitExceededException.class);
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+    }
+
+    @Test
+    public void should_reject_non_positive_permits() {
+        assertThatThrownBy(() -> RateLimiter.of(0, Duration.ofSeconds(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
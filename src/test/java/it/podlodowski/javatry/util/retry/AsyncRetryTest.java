@@ -0,0 +1,252 @@
+package it.podlodowski.javatry.util.retry;
+
+import it.podlodowski.javatry.util.bulkhead.Bulkhead;
+import it.podlodowski.javatry.util.metrics.LatencyHistogram;
+import it.podlodowski.javatry.util.metrics.RetryListener;
+import it.podlodowski.javatry.util.scheduler.DelayScheduler;
+import it.podlodowski.javatry.util.test.MagicException;
+import it.podlodowski.javatry.util.test.MagicStatus;
+import it.podlodowski.javatry.util.test.MagicWizard;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static it.podlodowski.javatry.util.test.MagicStatus.DONE;
+import static it.podlodowski.javatry.util.test.MagicStatus.FAILED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AsyncRetryTest {
+
+    private static final Executor SAME_THREAD = Runnable::run;
+
+    @Mock
+    private MagicWizard wizard;
+
+    @Before
+    public void setUp() throws Exception {
+        when(wizard.doMagicOrThrowException()).thenCallRealMethod();
+    }
+
+    @Test
+    public void should_complete_with_value_when_task_is_done_within_max_tries_bound() throws Exception {
+        // given
+        when(wizard.doMagic()).thenReturn(FAILED, FAILED, DONE);
+
+        // when
+        CompletableFuture<MagicStatus> future = AsyncRetry.runWithRetry(wizard::doMagicOrThrowException,
+                RetryPolicy.builder().times(3).onRetry(wizard::excuseForMagicFailure).withExecutor(SAME_THREAD).build());
+
+        // then
+        assertThat(future.get(1, TimeUnit.SECONDS)).isEqualTo(DONE);
+        verify(wizard, times(3)).doMagic();
+        verify(wizard, times(2)).excuseForMagicFailure();
+    }
+
+    @Test
+    public void should_consume_last_exception_and_complete_with_null() throws Exception {
+        // given
+        List<Exception> consumed = new ArrayList<>();
+        when(wizard.doMagic()).thenReturn(FAILED);
+
+        // when
+        CompletableFuture<MagicStatus> future = AsyncRetry.runWithRetry(wizard::doMagicOrThrowException,
+                RetryPolicy.builder().times(3).onException(consumed::add).withExecutor(SAME_THREAD).build());
+
+        // then
+        assertThat(future.get(1, TimeUnit.SECONDS)).isNull();
+        assertThat(consumed).hasSize(1).hasOnlyElementsOfType(MagicException.class);
+    }
+
+    @Test
+    public void should_hand_delays_to_scheduler_instead_of_sleeping() throws Exception {
+        // given
+        List<Long> requestedDelays = new ArrayList<>();
+        DelayScheduler scheduler = (task, delay, unit) -> {
+            requestedDelays.add(unit.toMillis(delay));
+            task.run();
+            return CompletableFuture.completedFuture(null);
+        };
+        when(wizard.doMagic()).thenReturn(FAILED, FAILED, DONE);
+
+        // when
+        long startTime = System.currentTimeMillis();
+        CompletableFuture<MagicStatus> future = AsyncRetry.runWithRetry(wizard::doMagicOrThrowException,
+                RetryPolicy.builder().times(3).withDelay(Duration.ofSeconds(10))
+                        .withExecutor(SAME_THREAD).withScheduler(scheduler).build());
+
+        // then
+        assertThat(future.get(1, TimeUnit.SECONDS)).isEqualTo(DONE);
+        assertThat(System.currentTimeMillis() - startTime).isLessThan(10000);
+        assertThat(requestedDelays).containsExactly(10000L, 10000L);
+    }
+
+    @Test
+    public void should_run_attempts_on_supplied_executor() throws Exception {
+        // given
+        AtomicInteger executions = new AtomicInteger();
+        Executor executor = task -> {
+            executions.incrementAndGet();
+            task.run();
+        };
+        when(wizard.doMagic()).thenReturn(FAILED, DONE);
+
+        // when
+        CompletableFuture<MagicStatus> future = AsyncRetry.runWithRetry(wizard::doMagicOrThrowException,
+                RetryPolicy.builder().times(2).withExecutor(executor).build());
+
+        // then
+        assertThat(future.get(1, TimeUnit.SECONDS)).isEqualTo(DONE);
+        assertThat(executions.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void should_stop_retrying_when_future_cancelled() throws Exception {
+        // given
+        when(wizard.doMagic()).thenReturn(FAILED);
+
+        // when
+        CompletableFuture<MagicStatus> future = AsyncRetry.runWithRetry(wizard::doMagicOrThrowException,
+                RetryPolicy.builder().endless().withDelay(Duration.ofMillis(50)).withExecutor(SAME_THREAD).build());
+        future.cancel(true);
+        Thread.sleep(200);
+
+        // then
+        verify(wizard, times(1)).doMagic();
+    }
+
+    @Test
+    public void should_complete_with_null_for_zero_max_tries() throws Exception {
+        // when
+        CompletableFuture<MagicStatus> future = AsyncRetry.runWithRetry(wizard::doMagicOrThrowException,
+                RetryPolicy.builder().times(0).withExecutor(SAME_THREAD).build());
+
+        // then
+        assertThat(future.get()).isNull();
+        verify(wizard, never()).doMagic();
+    }
+
+    @Test(expected = InstantiationException.class)
+    public void should_not_be_possible_to_instantiate_static_class() throws Exception {
+        // when
+        new AsyncRetry();
+        // then an exception should be thrown
+    }
+
+    @Test
+    public void should_take_result_of_hedged_attempt_when_first_attempt_is_slow() throws Exception {
+        // given
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch primaryInterrupted = new CountDownLatch(1);
+        Callable<String> callable = () -> {
+            if (calls.incrementAndGet() == 1) {
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    primaryInterrupted.countDown();
+                    throw e;
+                }
+                return "slow";
+            }
+            return "fast";
+        };
+
+        // when
+        long startTime = System.currentTimeMillis();
+        CompletableFuture<String> future = AsyncRetry.runWithRetry(callable,
+                RetryPolicy.builder().hedgeAfter(Duration.ofMillis(50), 1).build());
+
+        // then
+        assertThat(future.get(2, TimeUnit.SECONDS)).isEqualTo("fast");
+        assertThat(System.currentTimeMillis() - startTime).isLessThan(2_000);
+        assertThat(primaryInterrupted.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void should_not_hedge_when_first_attempt_is_fast() throws Exception {
+        // given
+        AtomicInteger calls = new AtomicInteger();
+
+        // when
+        CompletableFuture<Integer> future = AsyncRetry.runWithRetry(calls::incrementAndGet,
+                RetryPolicy.builder().hedgeAfter(Duration.ofMillis(100), 2).build());
+
+        // then
+        assertThat(future.get(1, TimeUnit.SECONDS)).isEqualTo(1);
+        Thread.sleep(200);
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_launch_at_most_max_hedges() throws Exception {
+        // given
+        AtomicInteger calls = new AtomicInteger();
+        Callable<Integer> callable = () -> {
+            int call = calls.incrementAndGet();
+            Thread.sleep(300);
+            return call;
+        };
+
+        // when
+        CompletableFuture<Integer> future = AsyncRetry.runWithRetry(callable,
+                RetryPolicy.builder().hedgeAfter(Duration.ofMillis(20), 2).build());
+
+        // then
+        assertThat(future.get(2, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(calls.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void should_retry_when_all_hedged_attempts_failed() throws Exception {
+        // given
+        AtomicInteger calls = new AtomicInteger();
+        Callable<Integer> callable = () -> {
+            int call = calls.incrementAndGet();
+            if (call <= 2) {
+                Thread.sleep(100);
+                throw new MagicException();
+            }
+            return call;
+        };
+
+        // when
+        CompletableFuture<Integer> future = AsyncRetry.runWithRetry(callable,
+                RetryPolicy.builder().times(2).hedgeAfter(Duration.ofMillis(20), 1).build());
+
+        // then
+        assertThat(future.get(2, TimeUnit.SECONDS)).isEqualTo(3);
+    }
+
+    @Test
+    public void should_not_hedge_until_latency_percentile_is_known() throws Exception {
+        // given
+        AtomicInteger calls = new AtomicInteger();
+        Callable<Integer> callable = () -> {
+            Thread.sleep(100);
+            return calls.incrementAndGet();
+        };
+
+        // when
+        CompletableFuture<Integer> future = AsyncRetry.runWithRetry(callable,
+                RetryPolicy.builder().hedgeAfter(new LatencyHistogram(), 95, 1).build());
+
+        // then
+        assertThat(future.get(1, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(calls.get()).isEqualTo(1);
+    }
+}
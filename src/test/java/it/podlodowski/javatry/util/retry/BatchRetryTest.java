@@ -0,0 +1,210 @@
+package it.podlodowski.javatry.util.retry;
+
+import it.podlodowski.javatry.util.metrics.RetryListener;
+import it.podlodowski.javatry.util.test.MagicException;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BatchRetryTest {
+
+    private static final Executor SAME_THREAD = Runnable::run;
+
+    @Test
+    public void should_retry_only_failed_items_in_rounds() throws Exception {
+        // given
+        AtomicInteger[] calls = new AtomicInteger[10];
+        List<Callable<Integer>> callables = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            int item = i;
+            calls[i] = new AtomicInteger();
+            callables.add(() -> {
+                if (calls[item].incrementAndGet() <= item % 3) {
+                    throw new MagicException();
+                }
+                return item;
+            });
+        }
+        AtomicInteger rounds = new AtomicInteger(1);
+
+        // when
+        BatchResult<Integer> result = BatchRetry.runWithRetry(callables, RetryPolicy.builder().times(3)
+                .onRetry(rounds::incrementAndGet).withExecutor(SAME_THREAD).build(), 4).get(1, TimeUnit.SECONDS);
+
+        // then
+        assertThat(result.allSucceeded()).isTrue();
+        assertThat(rounds.get()).isEqualTo(3);
+        for (int i = 0; i < 10; i++) {
+            assertThat(result.get(i)).isEqualTo(i);
+            assertThat(calls[i].get()).isEqualTo(i % 3 + 1);
+        }
+    }
+
+    @Test
+    public void should_report_per_item_failures_after_all_rounds() throws Exception {
+        // given
+        AtomicInteger failingCalls = new AtomicInteger();
+        List<Callable<String>> callables = new ArrayList<>();
+        callables.add(() -> "ok");
+        callables.add(() -> {
+            failingCalls.incrementAndGet();
+            throw new MagicException();
+        });
+
+        // when
+        BatchResult<String> result = BatchRetry.runWithRetry(callables,
+                RetryPolicy.builder().times(3).withExecutor(SAME_THREAD).build(), 2).get(1, TimeUnit.SECONDS);
+
+        // then
+        assertThat(result.size()).isEqualTo(2);
+        assertThat(result.successCount()).isEqualTo(1);
+        assertThat(result.failureCount()).isEqualTo(1);
+        assertThat(result.isSuccess(0)).isTrue();
+        assertThat(result.get(0)).isEqualTo("ok");
+        assertThat(result.isSuccess(1)).isFalse();
+        assertThat(result.getException(1)).isInstanceOf(MagicException.class);
+        assertThat(failingCalls.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void should_not_retry_aborted_items() throws Exception {
+        // given
+        AtomicInteger calls = new AtomicInteger();
+        List<Callable<String>> callables = Collections.singletonList(() -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException();
+        });
+
+        // when
+        BatchResult<String> result = BatchRetry.runWithRetry(callables, RetryPolicy.builder().times(3)
+                .abortOn(IllegalStateException.class).withExecutor(SAME_THREAD).build(), 1).get(1, TimeUnit.SECONDS);
+
+        // then
+        assertThat(result.getException(0)).isInstanceOf(IllegalStateException.class);
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_share_one_delay_per_round() throws Exception {
+        // given
+        List<Callable<String>> callables = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            AtomicInteger calls = new AtomicInteger();
+            callables.add(() -> {
+                if (calls.incrementAndGet() == 1) {
+                    throw new MagicException();
+                }
+                return "ok";
+            });
+        }
+        long startTime = System.currentTimeMillis();
+
+        // when
+        BatchResult<String> result = BatchRetry.runWithRetry(callables, RetryPolicy.builder().times(2)
+                .withDelay(Duration.ofMillis(100)).withExecutor(SAME_THREAD).build(), 8).get(2, TimeUnit.SECONDS);
+
+        // then
+        assertThat(result.allSucceeded()).isTrue();
+        assertThat(System.currentTimeMillis() - startTime).isBetween(100L, 1_000L);
+    }
+
+    @Test
+    public void should_bound_parallelism() throws Exception {
+        // given
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(20);
+        List<Callable<String>> callables = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            callables.add(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(10);
+                running.decrementAndGet();
+                done.countDown();
+                return "ok";
+            });
+        }
+
+        // when
+        BatchResult<String> result = BatchRetry.runWithRetry(callables,
+                RetryPolicy.builder().withExecutor(executor).build(), 3).get(2, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        // then
+        assertThat(result.successCount()).isEqualTo(20);
+        assertThat(maxRunning.get()).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    public void should_complete_empty_batch_immediately() throws Exception {
+        // when
+        BatchResult<String> result = BatchRetry.runWithRetry(Collections.<Callable<String>>emptyList(),
+                RetryPolicy.builder().times(3).build(), 4).get(1, TimeUnit.SECONDS);
+
+        // then
+        assertThat(result.size()).isZero();
+        assertThat(result.allSucceeded()).isTrue();
+    }
+
+    @Test
+    public void should_complete_exceptionally_when_item_throws_error() throws Exception {
+        // given
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        List<Callable<String>> callables = new ArrayList<>();
+        callables.add(() -> "value");
+        callables.add(() -> {
+            throw new AssertionError("magic went wrong");
+        });
+
+        // when
+        CompletableFuture<BatchResult<String>> future = BatchRetry.runWithRetry(callables,
+                RetryPolicy.builder().times(3).withExecutor(executor).build(), 2);
+
+        // then
+        try {
+            assertThatThrownBy(() -> future.get(1, TimeUnit.SECONDS)).hasCauseInstanceOf(AssertionError.class);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void should_complete_exceptionally_when_listener_throws() throws Exception {
+        // given
+        RetryListener listener = new RetryListener() {
+            @Override
+            public void onAttemptEnd(String name, int attempt, long elapsedNanos, Throwable throwable) {
+                throw new IllegalStateException("listener failure");
+            }
+        };
+
+        // when
+        CompletableFuture<BatchResult<String>> future = BatchRetry.runWithRetry(Collections.singletonList(() -> "value"),
+                RetryPolicy.builder().times(3).withListener(listener).withExecutor(SAME_THREAD).build(), 1);
+
+        // then
+        assertThatThrownBy(() -> future.get(1, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_reject_non_positive_parallelism() throws Exception {
+        // when
+        BatchRetry.runWithRetry(Collections.<Callable<String>>emptyList(), RetryPolicy.builder().build(), 0);
+        // then an exception should be thrown
+    }
+}
@@ -0,0 +1,169 @@
+package it.podlodowski.javatry.util.retry;
+
+import it.podlodowski.javatry.util.test.MagicException;
+import org.junit.Test;
+
+import java.io.UncheckedIOException;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class ResumableIteratorTest {
+
+    @Test
+    public void should_resume_after_last_delivered_element() throws Exception {
+        // given
+        List<Long> opens = new ArrayList<>();
+        ResumableSource<Long> source = (position, last) -> {
+            opens.add(position);
+            return failingAfter(position, 10, position + 4);
+        };
+
+        // when
+        List<Long> elements = RetryPolicy.builder().times(2).build().iterate(source).stream().collect(Collectors.toList());
+
+        // then
+        assertThat(elements).containsExactly(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L);
+        assertThat(opens).containsExactly(0L, 4L, 8L);
+    }
+
+    @Test
+    public void should_pass_last_delivered_element_when_reopening() throws Exception {
+        // given
+        List<Long> lastElements = new ArrayList<>();
+        ResumableSource<Long> source = (position, last) -> {
+            lastElements.add(last);
+            return failingAfter(position, 4, position == 0 ? 2 : -1);
+        };
+
+        // when
+        List<Long> elements = RetryPolicy.builder().times(2).build().iterate(source).stream().collect(Collectors.toList());
+
+        // then
+        assertThat(elements).containsExactly(0L, 1L, 2L, 3L);
+        assertThat(lastElements).containsExactly(null, 1L);
+    }
+
+    @Test
+    public void should_throw_after_consecutive_failures_without_progress() throws Exception {
+        // given
+        AtomicInteger opens = new AtomicInteger();
+        List<Long> elements = new ArrayList<>();
+        ResumableSource<Long> source = (position, last) -> {
+            opens.incrementAndGet();
+            return failingAfter(position, 10, 3);
+        };
+
+        // when
+        Throwable thrown = catchThrowable(() -> RetryPolicy.builder().times(3).build()
+                .iterate(source).forEachRemaining(elements::add));
+
+        // then
+        assertThat(thrown).isInstanceOf(UncheckedIOException.class);
+        assertThat(elements).containsExactly(0L, 1L, 2L);
+        assertThat(opens.get()).isEqualTo(3);
+    }
+
+    @Test(expected = MagicException.class)
+    public void should_rethrow_when_open_fails_and_retries_are_exhausted() throws Exception {
+        // given
+        ResumableSource<Long> source = (position, last) -> {
+            throw new MagicException();
+        };
+
+        // when
+        RetryPolicy.builder().times(2).build().iterate(source).forEachRemainingOrThrow(element -> { });
+        // then an exception should be thrown
+    }
+
+    @Test
+    public void should_not_reopen_on_aborted_exception() throws Exception {
+        // given
+        AtomicInteger opens = new AtomicInteger();
+        List<Long> elements = new ArrayList<>();
+        ResumableSource<Long> source = (position, last) -> {
+            opens.incrementAndGet();
+            return failingAfter(position, 10, 3);
+        };
+
+        // when
+        Throwable thrown = catchThrowable(() -> RetryPolicy.builder().times(3).abortOn(UncheckedIOException.class).build()
+                .iterate(source).stream().forEach(elements::add));
+
+        // then
+        assertThat(thrown).isInstanceOf(UncheckedIOException.class);
+        assertThat(elements).containsExactly(0L, 1L, 2L);
+        assertThat(opens.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_wrap_checked_exception_thrown_from_has_next() throws Exception {
+        // given
+        ResumableSource<Long> source = (position, last) -> {
+            throw new MagicException();
+        };
+
+        // when
+        Throwable thrown = catchThrowable(() -> RetryPolicy.builder().times(2).build().iterate(source).hasNext());
+
+        // then
+        assertThat(thrown).isInstanceOf(RetryException.class).hasCauseInstanceOf(MagicException.class);
+    }
+
+    @Test
+    public void should_restore_interrupt_flag_when_interrupted_during_delay() throws Exception {
+        // given
+        ResumableSource<Long> source = (position, last) -> {
+            throw new MagicException();
+        };
+        Iterator<Long> iterator = RetryPolicy.builder().times(2).withDelay(Duration.ofSeconds(10)).build().iterate(source);
+
+        // when
+        Thread.currentThread().interrupt();
+        Throwable thrown = catchThrowable(iterator::hasNext);
+
+        // then
+        assertThat(Thread.interrupted()).isTrue();
+        assertThat(thrown).isInstanceOf(RetryException.class).hasCauseInstanceOf(InterruptedException.class);
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void should_throw_when_next_called_on_exhausted_iterator() throws Exception {
+        // given
+        Iterator<Long> iterator = RetryPolicy.builder().build().iterate((position, last) -> failingAfter(0, 0, 0));
+
+        // when
+        iterator.next();
+        // then an exception should be thrown
+    }
+
+    private static Iterator<Long> failingAfter(long from, long end, long failAt) {
+        Iterator<Long> elements = LongStream.range(from, end).boxed().iterator();
+        return new Iterator<Long>() {
+            private long position = from;
+
+            @Override
+            public boolean hasNext() {
+                if (position == failAt && position < end) {
+                    throw new UncheckedIOException(new IOException("cursor lost"));
+                }
+                return elements.hasNext();
+            }
+
+            @Override
+            public Long next() {
+                position++;
+                return elements.next();
+            }
+        };
+    }
+}
@@ -0,0 +1,249 @@
+package it.podlodowski.javatry.util.retry;
+
+import it.podlodowski.javatry.util.function.IntCallable;
+import it.podlodowski.javatry.util.test.MagicException;
+import it.podlodowski.javatry.util.test.MagicStatus;
+import it.podlodowski.javatry.util.test.MagicWizard;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static it.podlodowski.javatry.util.test.MagicStatus.DONE;
+import static it.podlodowski.javatry.util.test.MagicStatus.FAILED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RetryPolicyTest {
+
+    @Mock
+    private MagicWizard wizard;
+
+    @Before
+    public void setUp() throws Exception {
+        when(wizard.doMagicOrThrowException()).thenCallRealMethod();
+    }
+
+    @Test
+    public void should_be_reusable_for_many_calls() throws Exception {
+        // given
+        RetryPolicy policy = RetryPolicy.builder().times(2).build();
+        when(wizard.doMagic()).thenReturn(FAILED, DONE, FAILED, DONE);
+
+        // when
+        MagicStatus first = policy.call(wizard::doMagicOrThrowException);
+        MagicStatus second = policy.call(wizard::doMagicOrThrowException);
+
+        // then
+        assertThat(first).isEqualTo(DONE);
+        assertThat(second).isEqualTo(DONE);
+        verify(wizard, times(4)).doMagic();
+    }
+
+    @Test
+    public void should_consume_exception_and_return_null() throws Exception {
+        // given
+        List<Exception> consumed = new ArrayList<>();
+        RetryPolicy policy = RetryPolicy.builder().times(3).onException(consumed::add).build();
+        when(wizard.doMagic()).thenReturn(FAILED);
+
+        // when
+        MagicStatus magicStatus = policy.call(wizard::doMagicOrThrowException);
+
+        // then
+        assertThat(magicStatus).isNull();
+        assertThat(consumed).hasSize(1).hasOnlyElementsOfType(MagicException.class);
+    }
+
+    @Test(expected = MagicException.class)
+    public void should_throw_exception_when_calling_or_throw() throws Exception {
+        // given
+        RetryPolicy policy = RetryPolicy.builder().times(3).build();
+        when(wizard.doMagic()).thenReturn(FAILED);
+
+        // when
+        policy.callOrThrow(wizard::doMagicOrThrowException);
+
+        // then an exception should be thrown
+    }
+
+    @Test
+    public void should_return_future() throws Exception {
+        // given
+        RetryPolicy policy = RetryPolicy.builder().times(2).build();
+        when(wizard.doMagic()).thenReturn(FAILED, DONE);
+
+        // when
+        MagicStatus magicStatus = policy.future(wizard::doMagicOrThrowException).get(1, TimeUnit.SECONDS);
+
+        // then
+        assertThat(magicStatus).isEqualTo(DONE);
+    }
+
+    @Test
+    public void should_complete_future_exceptionally_when_calling_or_throw() throws Exception {
+        // given
+        List<Exception> consumed = new ArrayList<>();
+        RetryPolicy policy = RetryPolicy.builder().times(2).onException(consumed::add).build();
+        when(wizard.doMagic()).thenReturn(FAILED);
+
+        // when
+        Throwable thrown = catchThrowable(() -> policy.futureOrThrow(wizard::doMagicOrThrowException)
+                .get(1, TimeUnit.SECONDS));
+
+        // then
+        assertThat(thrown).hasCauseInstanceOf(MagicException.class);
+        assertThat(consumed).isEmpty();
+        verify(wizard, times(2)).doMagic();
+    }
+
+    @Test
+    public void should_not_be_affected_by_builder_changes_after_build() throws Exception {
+        // given
+        RetryPolicy.Builder builder = RetryPolicy.builder().times(1);
+        RetryPolicy policy = builder.build();
+        when(wizard.doMagic()).thenReturn(FAILED);
+
+        // when
+        builder.times(5);
+        policy.call(wizard::doMagicOrThrowException);
+
+        // then
+        verify(wizard, times(1)).doMagic();
+    }
+
+    @Test
+    public void should_reuse_built_policy_until_builder_changes() throws Exception {
+        // given
+        RetryPolicy policy = RetryPolicy.builder().times(3).retryOn(MagicException.class).build();
+        RetryPolicy.Builder builder = policy.toBuilder();
+
+        // when
+        RetryPolicy unchanged = builder.build();
+        RetryPolicy changed = builder.times(5).build();
+
+        // then
+        assertThat(unchanged).isSameAs(policy);
+        assertThat(changed).isNotSameAs(policy);
+        assertThat(builder.build()).isSameAs(changed);
+    }
+
+    @Test
+    public void should_copy_configuration_to_builder() throws Exception {
+        // given
+        RetryPolicy policy = RetryPolicy.builder().times(3).build();
+        when(wizard.doMagic()).thenReturn(FAILED);
+
+        // when
+        policy.toBuilder().build().call(wizard::doMagicOrThrowException);
+
+        // then
+        verify(wizard, times(3)).doMagic();
+    }
+
+    @Test
+    public void should_not_allocate_on_success_path() throws Exception {
+        // given
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threadMXBean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threadMXBean;
+        Assume.assumeTrue(allocations.isThreadAllocatedMemorySupported());
+        long threadId = Thread.currentThread().getId();
+        RetryPolicy policy = RetryPolicy.builder().times(3).build();
+        Callable<Integer> callable = () -> 42;
+        for (int i = 0; i < 100_000; i++) {
+            policy.call(callable);
+        }
+
+        // when
+        long before = allocations.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 100_000; i++) {
+            policy.call(callable);
+        }
+        long after = allocations.getThreadAllocatedBytes(threadId);
+
+        // then
+        assertThat(after - before).isLessThan(100_000);
+    }
+
+    @Test
+    public void should_not_allocate_on_primitive_success_path() throws Exception {
+        // given
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threadMXBean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threadMXBean;
+        Assume.assumeTrue(allocations.isThreadAllocatedMemorySupported());
+        long threadId = Thread.currentThread().getId();
+        RetryPolicy policy = RetryPolicy.builder().times(3).build();
+        IntCallable callable = () -> 42;
+        for (int i = 0; i < 100_000; i++) {
+            policy.callIntOrThrow(callable);
+        }
+
+        // when
+        long before = allocations.getThreadAllocatedBytes(threadId);
+        long sum = 0;
+        for (int i = 0; i < 100_000; i++) {
+            sum += policy.callIntOrThrow(callable);
+        }
+        long after = allocations.getThreadAllocatedBytes(threadId);
+
+        // then
+        assertThat(sum).isEqualTo(4_200_000);
+        assertThat(after - before).isLessThan(100_000);
+    }
+
+    @Test
+    public void should_return_empty_for_primitive_call_without_tries() throws Exception {
+        // given
+        RetryPolicy policy = RetryPolicy.builder().times(0).build();
+        IntCallable callable = () -> 42;
+
+        // when
+        OptionalInt result = policy.callInt(callable);
+        int value = policy.callIntOrThrow(callable);
+
+        // then
+        assertThat(result.isPresent()).isFalse();
+        assertThat(value).isZero();
+    }
+
+    @Test
+    public void should_retry_primitive_result_matching_predicate() throws Exception {
+        // given
+        AtomicInteger calls = new AtomicInteger();
+        RetryPolicy policy = RetryPolicy.builder().times(3).retryIfResult(result -> (Integer) result < 2).build();
+
+        // when
+        int result = policy.callIntOrThrow(calls::incrementAndGet);
+
+        // then
+        assertThat(result).isEqualTo(2);
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void should_return_last_rejected_primitive_result_when_tries_exhausted() throws Exception {
+        // given
+        RetryPolicy policy = RetryPolicy.builder().times(2).retryIfResult(result -> (Double) result < 0).build();
+
+        // when
+        double result = policy.callDoubleOrThrow(() -> -1.5);
+
+        // then
+        assertThat(result).isEqualTo(-1.5);
+    }
+}
@@ -0,0 +1,224 @@
+package it.podlodowski.javatry.util.retry;
+
+import it.podlodowski.javatry.util.bulkhead.Bulkhead;
+import it.podlodowski.javatry.util.metrics.RetryListener;
+import it.podlodowski.javatry.util.scheduler.DelayScheduler;
+import it.podlodowski.javatry.util.scheduler.Schedulers;
+import it.podlodowski.javatry.util.test.MagicException;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class StageRetryTest {
+
+    @Test
+    public void should_complete_with_value_when_stage_succeeds_within_max_tries_bound() throws Exception {
+        // given
+        AtomicInteger calls = new AtomicInteger();
+
+        // when
+        CompletableFuture<String> future = StageRetry.runWithRetry(() -> calls.incrementAndGet() < 3
+                ? failed(new MagicException()) : CompletableFuture.completedFuture("value"),
+                RetryPolicy.builder().times(3).build());
+
+        // then
+        assertThat(future.get(1, TimeUnit.SECONDS)).isEqualTo("value");
+        assertThat(calls.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void should_consume_last_exception_and_complete_with_null() throws Exception {
+        // given
+        List<Exception> consumed = new ArrayList<>();
+
+        // when
+        CompletableFuture<String> future = StageRetry.runWithRetry(() -> failed(new MagicException()),
+                RetryPolicy.builder().times(3).onException(consumed::add).build());
+
+        // then
+        assertThat(future.get(1, TimeUnit.SECONDS)).isNull();
+        assertThat(consumed).hasSize(1).hasOnlyElementsOfType(MagicException.class);
+    }
+
+    @Test
+    public void should_not_overflow_stack_when_stages_fail_synchronously() throws Exception {
+        // given
+        AtomicInteger calls = new AtomicInteger();
+
+        // when
+        CompletableFuture<String> future = StageRetry.runWithRetry(() -> calls.incrementAndGet() < 100_000
+                ? failed(new MagicException()) : CompletableFuture.completedFuture("value"),
+                RetryPolicy.builder().endless().build());
+
+        // then
+        assertThat(future.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+    }
+
+    @Test
+    public void should_schedule_delays_without_blocking_the_caller() throws Exception {
+        // given
+        List<Long> delays = new ArrayList<>();
+        DelayScheduler scheduler = (task, delay, unit) -> {
+            delays.add(unit.toMillis(delay));
+            task.run();
+            return CompletableFuture.completedFuture(null);
+        };
+        AtomicInteger calls = new AtomicInteger();
+
+        // when
+        CompletableFuture<String> future = StageRetry.runWithRetry(() -> calls.incrementAndGet() < 3
+                ? failed(new MagicException()) : CompletableFuture.completedFuture("value"),
+                RetryPolicy.builder().times(3).withDelay(Duration.ofSeconds(10)).withScheduler(scheduler).build());
+
+        // then
+        assertThat(future.get(1, TimeUnit.SECONDS)).isEqualTo("value");
+        assertThat(delays).containsExactly(10_000L, 10_000L);
+    }
+
+    @Test
+    public void should_time_out_and_cancel_pending_stage() throws Exception {
+        // given
+        List<CompletableFuture<String>> stages = new ArrayList<>();
+        List<Exception> consumed = new ArrayList<>();
+
+        // when
+        CompletableFuture<String> future = StageRetry.runWithRetry(() -> {
+            CompletableFuture<String> stage = new CompletableFuture<>();
+            stages.add(stage);
+            return stage;
+        }, RetryPolicy.builder().times(2).attemptTimeout(Duration.ofMillis(50)).onException(consumed::add).build());
+
+        // then
+        assertThat(future.get(1, TimeUnit.SECONDS)).isNull();
+        assertThat(stages).hasSize(2);
+        assertThat(stages.get(0).isCancelled()).isTrue();
+        assertThat(consumed).hasSize(1).hasOnlyElementsOfType(TimeoutException.class);
+    }
+
+    @Test
+    public void should_cancel_pending_stage_when_future_cancelled() throws Exception {
+        // given
+        CompletableFuture<String> stage = new CompletableFuture<>();
+
+        // when
+        CompletableFuture<String> future = StageRetry.runWithRetry(() -> stage, RetryPolicy.builder().times(3).build());
+        future.cancel(true);
+
+        // then
+        assertThat(stage.isCancelled()).isTrue();
+    }
+
+    @Test
+    public void should_treat_supplier_exception_as_failed_attempt() throws Exception {
+        // given
+        AtomicInteger calls = new AtomicInteger();
+
+        // when
+        CompletableFuture<String> future = StageRetry.runWithRetry(() -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new IllegalStateException();
+            }
+            return CompletableFuture.completedFuture("value");
+        }, RetryPolicy.builder().times(2).build());
+
+        // then
+        assertThat(future.get(1, TimeUnit.SECONDS)).isEqualTo("value");
+    }
+
+    @Test
+    public void should_complete_exceptionally_when_supplier_throws_error_on_delayed_retry() throws Exception {
+        // given
+        AtomicInteger calls = new AtomicInteger();
+        Bulkhead bulkhead = Bulkhead.of(1);
+
+        // when
+        CompletableFuture<String> future = StageRetry.runWithRetry(() -> {
+            if (calls.incrementAndGet() == 1) {
+                return failed(new MagicException());
+            }
+            throw new AssertionError("magic went wrong");
+        }, RetryPolicy.builder().times(3).withDelay(Duration.ofMillis(10)).withBulkhead(bulkhead).build());
+
+        // then
+        assertThatThrownBy(() -> future.get(1, TimeUnit.SECONDS)).hasCauseInstanceOf(AssertionError.class);
+        assertThat(bulkhead.getInFlight()).isZero();
+    }
+
+    @Test
+    public void should_complete_exceptionally_when_listener_throws_on_stage_completion() throws Exception {
+        // given
+        CompletableFuture<String> stage = new CompletableFuture<>();
+        RetryListener listener = new RetryListener() {
+            @Override
+            public void onAttemptEnd(String name, int attempt, long elapsedNanos, Throwable throwable) {
+                throw new IllegalStateException("listener failure");
+            }
+        };
+        CompletableFuture<String> future = StageRetry.runWithRetry(() -> stage,
+                RetryPolicy.builder().times(3).withListener(listener).build());
+
+        // when
+        stage.complete("value");
+
+        // then
+        assertThatThrownBy(() -> future.get(1, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void should_run_delayed_retry_on_executor() throws Exception {
+        // given
+        ExecutorService executor = Executors.newSingleThreadExecutor(Schedulers.daemonThreadFactory("stage-worker"));
+        List<String> threads = new CopyOnWriteArrayList<>();
+
+        // when
+        CompletableFuture<String> future = StageRetry.runWithRetry(() -> {
+            threads.add(Thread.currentThread().getName());
+            return threads.size() < 2 ? failed(new MagicException()) : CompletableFuture.completedFuture("value");
+        }, RetryPolicy.builder().times(2).withDelay(Duration.ofMillis(10)).withExecutor(executor).build());
+
+        // then
+        assertThat(future.get(1, TimeUnit.SECONDS)).isEqualTo("value");
+        assertThat(threads.get(1)).startsWith("stage-worker");
+        executor.shutdown();
+    }
+
+    @Test
+    public void should_resume_bulkhead_waiter_on_executor() throws Exception {
+        // given
+        ExecutorService executor = Executors.newSingleThreadExecutor(Schedulers.daemonThreadFactory("stage-worker"));
+        Bulkhead bulkhead = Bulkhead.builder().maxConcurrentCalls(1).maxWaitingCalls(1).build();
+        bulkhead.tryAcquirePermission();
+        AtomicReference<String> thread = new AtomicReference<>();
+        CompletableFuture<String> future = StageRetry.runWithRetry(() -> {
+            thread.set(Thread.currentThread().getName());
+            return CompletableFuture.completedFuture("value");
+        }, RetryPolicy.builder().withBulkhead(bulkhead).withExecutor(executor).build());
+
+        // when
+        bulkhead.release();
+
+        // then
+        assertThat(future.get(1, TimeUnit.SECONDS)).isEqualTo("value");
+        assertThat(thread.get()).startsWith("stage-worker");
+        executor.shutdown();
+    }
+
+    private static <T> CompletableFuture<T> failed(Exception e) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(e);
+        return future;
+    }
+}
@@ -0,0 +1,118 @@
+package it.podlodowski.javatry.util.scheduler;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SchedulersTest {
+
+    @Test
+    public void should_run_task_after_delay_on_default_scheduler() throws Exception {
+        // given
+        CountDownLatch latch = new CountDownLatch(1);
+        long startTime = System.currentTimeMillis();
+
+        // when
+        Schedulers.defaultScheduler().schedule(latch::countDown, 100, TimeUnit.MILLISECONDS);
+
+        // then
+        assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(System.currentTimeMillis() - startTime).isGreaterThanOrEqualTo(100);
+    }
+
+    @Test
+    public void should_run_task_after_delay_on_thread_per_delay_scheduler() throws Exception {
+        // given
+        CountDownLatch latch = new CountDownLatch(1);
+        DelayScheduler scheduler = Schedulers.threadPerDelayScheduler(Schedulers.daemonThreadFactory("test"));
+        long startTime = System.currentTimeMillis();
+
+        // when
+        scheduler.schedule(latch::countDown, 100, TimeUnit.MILLISECONDS);
+
+        // then
+        assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(System.currentTimeMillis() - startTime).isGreaterThanOrEqualTo(100);
+    }
+
+    @Test
+    public void should_not_run_cancelled_task_on_thread_per_delay_scheduler() throws Exception {
+        // given
+        AtomicBoolean ran = new AtomicBoolean();
+        DelayScheduler scheduler = Schedulers.threadPerDelayScheduler(Schedulers.daemonThreadFactory("test"));
+
+        // when
+        Future<?> future = scheduler.schedule(() -> ran.set(true), 100, TimeUnit.MILLISECONDS);
+        future.cancel(true);
+        Thread.sleep(200);
+
+        // then
+        assertThat(ran.get()).isFalse();
+    }
+
+    @Test
+    public void should_wake_sleeping_thread_when_cancelled_without_interrupt() throws Exception {
+        // given
+        AtomicBoolean ran = new AtomicBoolean();
+        AtomicReference<Thread> sleeper = new AtomicReference<>();
+        ThreadFactory threadFactory = Schedulers.daemonThreadFactory("test");
+        DelayScheduler scheduler = Schedulers.threadPerDelayScheduler(runnable -> {
+            Thread thread = threadFactory.newThread(runnable);
+            sleeper.set(thread);
+            return thread;
+        });
+
+        // when
+        Future<?> future = scheduler.schedule(() -> ran.set(true), 10, TimeUnit.SECONDS);
+        boolean cancelled = future.cancel(false);
+        sleeper.get().join(1000);
+
+        // then
+        assertThat(cancelled).isTrue();
+        assertThat(sleeper.get().isAlive()).isFalse();
+        assertThat(ran.get()).isFalse();
+    }
+
+    @Test
+    public void should_run_task_on_virtual_thread() throws Exception {
+        // given
+        Assume.assumeTrue(Schedulers.isVirtualThreadSupported());
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicReference<String> threadName = new AtomicReference<>();
+
+        // when
+        Schedulers.virtualThreadExecutor().execute(() -> {
+            threadName.set(Thread.currentThread().getName());
+            latch.countDown();
+        });
+
+        // then
+        assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(threadName.get()).startsWith("javatry-virtual-");
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void should_reject_virtual_threads_when_not_supported() throws Exception {
+        // given
+        Assume.assumeFalse(Schedulers.isVirtualThreadSupported());
+
+        // when
+        Schedulers.virtualThreadExecutor();
+        // then an exception should be thrown
+    }
+
+    @Test(expected = InstantiationException.class)
+    public void should_not_be_possible_to_instantiate_helper_class() throws Exception {
+        // when
+        new Schedulers();
+        // then an exception should be thrown
+    }
+}
@@ -0,0 +1,205 @@
+package it.podlodowski.javatry.util.scheduler;
+
+import it.podlodowski.javatry.Try;
+import org.junit.After;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TimingWheelSchedulerTest {
+
+    private final TimingWheelScheduler scheduler = TimingWheelScheduler.builder()
+            .tick(Duration.ofMillis(5))
+            .ticksPerWheel(8)
+            .build();
+
+    @After
+    public void tearDown() {
+        scheduler.close();
+    }
+
+    @Test
+    public void should_run_task_after_delay() throws Exception {
+        // given
+        CountDownLatch latch = new CountDownLatch(1);
+        long startTime = System.nanoTime();
+
+        // when
+        scheduler.schedule(latch::countDown, 50, TimeUnit.MILLISECONDS);
+
+        // then
+        assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(System.nanoTime() - startTime).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    public void should_run_task_with_delay_longer_than_one_wheel_rotation() throws Exception {
+        // given
+        CountDownLatch latch = new CountDownLatch(1);
+        long startTime = System.nanoTime();
+
+        // when
+        scheduler.schedule(latch::countDown, 120, TimeUnit.MILLISECONDS);
+
+        // then
+        assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(System.nanoTime() - startTime).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(120));
+    }
+
+    @Test
+    public void should_not_run_cancelled_task() throws Exception {
+        // given
+        AtomicBoolean ran = new AtomicBoolean();
+
+        // when
+        Future<?> future = scheduler.schedule(() -> ran.set(true), 50, TimeUnit.MILLISECONDS);
+        future.cancel(false);
+        Thread.sleep(150);
+
+        // then
+        assertThat(future.isCancelled()).isTrue();
+        assertThat(ran.get()).isFalse();
+        assertThat(scheduler.pending()).isZero();
+    }
+
+    @Test
+    public void should_run_many_pending_tasks_on_a_single_timer_thread() throws Exception {
+        // given
+        int tasks = 10_000;
+        CountDownLatch latch = new CountDownLatch(tasks);
+
+        // when
+        for (int i = 0; i < tasks; i++) {
+            scheduler.schedule(latch::countDown, i % 100, TimeUnit.MILLISECONDS);
+        }
+
+        // then
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    public void should_dispatch_expired_tasks_to_executor() throws Exception {
+        // given
+        AtomicInteger dispatched = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(1);
+        try (TimingWheelScheduler dispatching = TimingWheelScheduler.builder()
+                .dispatchTo(runnable -> {
+                    dispatched.incrementAndGet();
+                    runnable.run();
+                })
+                .build()) {
+
+            // when
+            dispatching.schedule(latch::countDown, 10, TimeUnit.MILLISECONDS);
+
+            // then
+            assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+            assertThat(dispatched.get()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void should_dispatch_tasks_expiring_in_one_tick_as_single_batch() throws Exception {
+        // given
+        AtomicInteger dispatched = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(3);
+        try (TimingWheelScheduler dispatching = TimingWheelScheduler.builder()
+                .tick(Duration.ofMillis(50))
+                .dispatchTo(runnable -> {
+                    dispatched.incrementAndGet();
+                    runnable.run();
+                })
+                .build()) {
+
+            // when
+            for (int i = 0; i < 3; i++) {
+                dispatching.schedule(latch::countDown, 0, TimeUnit.MILLISECONDS);
+            }
+
+            // then
+            assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+            assertThat(dispatched.get()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void should_not_run_tasks_on_wheel_thread_by_default() throws Exception {
+        // given
+        AtomicReference<String> thread = new AtomicReference<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        try (TimingWheelScheduler wheel = TimingWheelScheduler.builder().threadName("wheel").build()) {
+
+            // when
+            wheel.schedule(() -> {
+                thread.set(Thread.currentThread().getName());
+                latch.countDown();
+            }, 10, TimeUnit.MILLISECONDS);
+
+            // then
+            assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+            assertThat(thread.get()).doesNotStartWith("wheel");
+        }
+    }
+
+    @Test
+    public void should_retry_endless_try_on_timing_wheel() throws Exception {
+        // given
+        AtomicInteger attempts = new AtomicInteger();
+
+        // when
+        CompletableFuture<Integer> result = Try.it(() -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new IllegalStateException();
+            }
+            return attempts.get();
+        }).endless().withDelay(Duration.ofMillis(10)).withScheduler(scheduler).future();
+
+        // then
+        assertThat(result.get(1, TimeUnit.SECONDS)).isEqualTo(3);
+    }
+
+    @Test
+    public void should_reject_tasks_after_close() {
+        // given
+        scheduler.close();
+
+        // when / then
+        assertThatThrownBy(() -> scheduler.schedule(() -> {}, 10, TimeUnit.MILLISECONDS))
+                .isInstanceOf(RejectedExecutionException.class);
+    }
+
+    @Test
+    public void should_cancel_pending_tasks_on_close() throws Exception {
+        // given
+        AtomicBoolean ran = new AtomicBoolean();
+        Future<?> inWheel = scheduler.schedule(() -> ran.set(true), 10, TimeUnit.SECONDS);
+        Thread.sleep(50);
+        Future<?> justAdded = scheduler.schedule(() -> ran.set(true), 1, TimeUnit.SECONDS);
+
+        // when
+        scheduler.close();
+
+        // then
+        assertThat(inWheel.isCancelled()).isTrue();
+        assertThat(justAdded.isCancelled()).isTrue();
+        assertThat(scheduler.pending()).isZero();
+        assertThat(ran.get()).isFalse();
+    }
+
+    @Test
+    public void should_reject_tick_per_wheel_not_being_power_of_two() {
+        assertThatThrownBy(() -> TimingWheelScheduler.builder().ticksPerWheel(10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}